@@ -8,6 +8,9 @@
 plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
+
+    // Adds the jmh source set and task for microbenchmarks in src/jmh/java.
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -41,3 +44,46 @@ tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
 }
+
+tasks.register<JavaExec>("perft") {
+    // Move generator benchmark, e.g. ./gradlew perft --args="6" or --args="--check 5"
+    group = "verification"
+    description = "Runs perft on the move generator and reports nodes per second."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "chess.game.Perft"
+}
+
+tasks.register<JavaExec>("search") {
+    // Engine depth benchmark, e.g. ./gradlew search --args="100" or --args="100 <fen>"
+    group = "verification"
+    description = "Searches the reference positions for a fixed time each and reports the depth reached."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "chess.game.search.Search"
+}
+
+tasks.register<JavaExec>("smp") {
+    // Lazy SMP scaling, e.g. ./gradlew smp --args="8 16 1000" for depth 8 on 1 to 16 threads
+    group = "verification"
+    description = "Reports time-to-depth speedup, nodes per second and fixed-time depth by thread count."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "chess.game.search.ParallelSearch"
+}
+
+tasks.register<JavaExec>("importPgn") {
+    // PGN import throughput, e.g. ./gradlew importPgn --args="games.pgn 8"
+    group = "verification"
+    description = "Imports a PGN file on all cores and reports games per second and queue depths."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "chess.game.PgnImporter"
+}
+
+jmh {
+    // Microbenchmarks, run with ./gradlew jmh; results land in build/results/jmh.
+    // The gc profiler adds allocation rates (gc.alloc.rate.norm is bytes per operation).
+    jmhVersion = libs.versions.jmh.get()
+    profilers = listOf("gc")
+    fork = 2
+    warmupIterations = 5
+    iterations = 5
+    resultFormat = "JSON"
+}
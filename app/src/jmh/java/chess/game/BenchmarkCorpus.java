@@ -0,0 +1,37 @@
+package chess.game;
+
+/**
+ * Positions the benchmarks run on, grouped by game phase. Middlegames stress the sliding pieces
+ * and castling logic on crowded boards, endgames the king and pawn paths on open ones.
+ */
+public enum BenchmarkCorpus {
+    MIDDLEGAME(
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 8",
+        "r2q1rk1/1b2bppp/p2ppn2/1p6/3NP3/1BN1B3/PPP2PPP/R2Q1RK1 b - - 0 12"),
+    ENDGAME(
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "8/8/4k3/8/2K5/8/3P4/8 w - - 0 1",
+        "8/5pk1/6p1/8/3R4/6P1/5PK1/r7 w - - 0 40",
+        "6k1/5p2/6p1/8/8/1B6/5PPP/6K1 b - - 0 30",
+        "8/8/8/3k4/8/8/2QK4/8 w - - 0 60",
+        "8/1p4k1/p1n5/P7/1P3N2/6K1/8/8 w - - 0 45");
+
+    private final String[] fens;
+
+    BenchmarkCorpus(String... fens) {
+        this.fens = fens;
+    }
+
+    /**
+     * Returns fresh positions for every FEN in this corpus.
+     */
+    public Bitboard[] positions() {
+        Bitboard[] positions = new Bitboard[this.fens.length];
+        for (int i = 0; i < positions.length; i++) positions[i] = Bitboard.fromFen(this.fens[i]);
+        return positions;
+    }
+}
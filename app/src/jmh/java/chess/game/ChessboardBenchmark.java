@@ -0,0 +1,81 @@
+package chess.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link Chessboard} entry points the GUI calls on every click. Each operation
+ * sweeps the whole corpus, so scores are corpus sweeps per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChessboardBenchmark {
+
+    @Param({"MIDDLEGAME", "ENDGAME"})
+    public BenchmarkCorpus corpus;
+
+    private Bitboard[] positions;
+    private Chessboard[] boards;
+    private Position[][] firstMoves;
+    private final MoveList moveList = new MoveList();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.positions = this.corpus.positions();
+        this.boards = new Chessboard[this.positions.length];
+        this.firstMoves = new Position[this.positions.length][];
+        for (int i = 0; i < this.positions.length; i++) {
+            this.boards[i] = new Chessboard(this.positions[i]);
+
+            int move = Perft.legalMoves(this.positions[i]).get(0);
+            this.firstMoves[i] = new Position[]{Bitboard.toPosition(Move.from(move)), Bitboard.toPosition(Move.to(move))};
+        }
+    }
+
+    /**
+     * Plays each board's first legal move and takes it back, so the same boards serve the whole
+     * trial. The score and allocation figures cover playing and taking back each move.
+     */
+    @Benchmark
+    public void tryMove(Blackhole bh) {
+        for (int i = 0; i < this.boards.length; i++) {
+            Chessboard board = this.boards[i];
+            bh.consume(board.tryMove(this.firstMoves[i][0], this.firstMoves[i][1]));
+            board.undoMove();
+        }
+    }
+
+    @Benchmark
+    public void getLegalMoves(Blackhole bh) {
+        for (Chessboard board : this.boards) {
+            long own = board.getPosition().getOccupancy(board.getPosition().getSideToMove());
+            while (own != 0) {
+                int square = Long.numberOfTrailingZeros(own);
+                own &= own - 1;
+                bh.consume(board.getLegalMoves(Bitboard.row(square), Bitboard.column(square)));
+            }
+        }
+    }
+
+    @Benchmark
+    public int getLegalMovesEncoded() {
+        int count = 0;
+        for (Chessboard board : this.boards) {
+            this.moveList.clear();
+            board.getLegalMoves(this.moveList);
+            count += this.moveList.size();
+        }
+        return count;
+    }
+}
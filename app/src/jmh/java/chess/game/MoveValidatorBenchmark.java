@@ -0,0 +1,60 @@
+package chess.game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@code Piece[][]} helpers behind move validation: check detection from each king
+ * and deep board copies. Each operation sweeps the whole corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveValidatorBenchmark {
+
+    @Param({"MIDDLEGAME", "ENDGAME"})
+    public BenchmarkCorpus corpus;
+
+    private Piece[][][] boards;
+    private MoveContext[] contexts;
+    private King[][] kings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Bitboard[] positions = this.corpus.positions();
+        this.boards = new Piece[positions.length][][];
+        this.contexts = new MoveContext[positions.length];
+        this.kings = new King[positions.length][2];
+        for (int i = 0; i < positions.length; i++) {
+            this.boards[i] = positions[i].toPieces();
+            this.contexts[i] = new MoveContext(positions[i].getFullmoveNumber(), this.boards[i]);
+            for (int side = Bitboard.WHITE; side <= Bitboard.BLACK; side++) {
+                int king = positions[i].kingSquare(side);
+                this.kings[i][side] = (King) this.boards[i][Bitboard.row(king)][Bitboard.column(king)];
+            }
+        }
+    }
+
+    @Benchmark
+    public void kingIsInCheck(Blackhole bh) {
+        for (int i = 0; i < this.contexts.length; i++) {
+            bh.consume(this.kings[i][Bitboard.WHITE].isInCheck(this.contexts[i]));
+            bh.consume(this.kings[i][Bitboard.BLACK].isInCheck(this.contexts[i]));
+        }
+    }
+
+    @Benchmark
+    public void cloneBoard(Blackhole bh) {
+        for (Piece[][] board : this.boards) bh.consume(MoveValidator.cloneBoard(board));
+    }
+}
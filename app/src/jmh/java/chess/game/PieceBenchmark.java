@@ -0,0 +1,64 @@
+package chess.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chess.game.PieceBehaviors.Title;
+
+/**
+ * Benchmarks {@link Piece#generatePseudoLegalMoves} per piece type, over every piece of that type
+ * for either side in the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PieceBenchmark {
+
+    @Param({"MIDDLEGAME", "ENDGAME"})
+    public BenchmarkCorpus corpus;
+
+    @Param({"R", "N", "B", "Q", "K", "P"})
+    public Title title;
+
+    private Piece[] pieces;
+    private MoveContext[] contexts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Piece> pieces = new ArrayList<>();
+        List<MoveContext> contexts = new ArrayList<>();
+        for (Bitboard position : this.corpus.positions()) {
+            Piece[][] board = position.toPieces();
+            MoveContext context = new MoveContext(position.getFullmoveNumber(), board);
+            for (Piece[] row : board) {
+                for (Piece piece : row) {
+                    if (piece != null && Bitboard.typeOf(Bitboard.pieceCode(piece)) == this.title.ordinal()) {
+                        pieces.add(piece);
+                        contexts.add(context);
+                    }
+                }
+            }
+        }
+        this.pieces = pieces.toArray(new Piece[0]);
+        this.contexts = contexts.toArray(new MoveContext[0]);
+    }
+
+    @Benchmark
+    public void generatePseudoLegalMoves(Blackhole bh) {
+        for (int i = 0; i < this.pieces.length; i++) {
+            bh.consume(this.pieces[i].generatePseudoLegalMoves(this.contexts[i]));
+        }
+    }
+}
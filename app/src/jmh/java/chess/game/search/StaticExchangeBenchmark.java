@@ -0,0 +1,54 @@
+package chess.game.search;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chess.game.Bitboard;
+import chess.game.BenchmarkCorpus;
+import chess.game.LegalMoveGenerator;
+import chess.game.MoveList;
+
+/**
+ * Benchmarks static exchange evaluation over every capture in the corpus. The gc profiler's
+ * {@code gc.alloc.rate.norm} should stay at zero bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StaticExchangeBenchmark {
+
+    @Param({"MIDDLEGAME", "ENDGAME"})
+    public BenchmarkCorpus corpus;
+
+    private Bitboard[] positions;
+    private int[][] captures;
+    private final StaticExchange exchange = new StaticExchange();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.positions = this.corpus.positions();
+        this.captures = new int[this.positions.length][];
+        for (int i = 0; i < this.positions.length; i++) {
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(this.positions[i]).generateCaptures(moves);
+            this.captures[i] = moves.toArray();
+        }
+    }
+
+    @Benchmark
+    public void evaluateCaptures(Blackhole bh) {
+        for (int i = 0; i < this.positions.length; i++) {
+            for (int move : this.captures[i]) bh.consume(this.exchange.evaluate(this.positions[i], move));
+        }
+    }
+}
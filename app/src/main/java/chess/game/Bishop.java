@@ -1,6 +1,5 @@
 package chess.game;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -43,17 +42,19 @@ public class Bishop extends SlidingPieces {
 
     @Override
     public Set<Position> generatePseudoLegalMoves(MoveContext mContext) {
-        Set<Position> moves = new HashSet<>(MAX_MOVES);
         var board = mContext.getBoard();
+        return this.collectTargets(bishopAttacks(Bitboard.square(this.position), board), board, MAX_MOVES);
+    }
 
-        for (Direction dr : DIAGONALS) {
-            this.processLine(dr.getRowDelta(), dr.getColDelta(), board, moves, (row, column, piece) -> {
-                if (piece == null || piece.getColor() != this.getColor()) moves.add(new Position(row, column));
-                return moves;
-            });
-        }
-
-        return moves;
+    /**
+     * Returns the squares a bishop on {@code square} attacks as a {@link Bitboard} mask.
+     *
+     * @param square the bishop's square, numbered as in {@link Bitboard}
+     * @param occupied the occupied squares that block the bishop
+     * @return a board of attacked squares, including the first blocker on each diagonal
+     */
+    public static long attacks(int square, long occupied) {
+        return Magics.bishopAttacks(square, occupied);
     }
 
     @Override
@@ -0,0 +1,681 @@
+package chess.game;
+
+import java.util.Arrays;
+
+import chess.game.PieceBehaviors.Title;
+
+/**
+ * A compact chess position built from 64-bit boards.
+ * <p>
+ * Squares are numbered {@code row * 8 + column} so that they line up with {@link Position}:
+ * square 0 is a8 (row 0, column 0) and square 63 is h1. Bit {@code n} of a board is set when
+ * square {@code n} is occupied.
+ * </p>
+ * <p>
+ * The position keeps one board for each of the twelve colored piece kinds, an occupancy board per
+ * color and for the whole board, and a 64 entry mailbox for constant time piece lookup. Piece kinds
+ * are encoded as {@code side * 6 + type}, where {@code type} is the ordinal of {@link Title}.
+ * </p>
+ * <p>
+ * Every position carries a 64-bit {@link Zobrist} key that is updated incrementally as moves are
+ * made and unmade, so positions can be identified and compared without looking at the board.
+ * </p>
+ * <p>
+ * Move generation and legality checking on this type do not allocate. The {@code Piece[][]} view
+ * used by the GUI is derived lazily by {@link #toPieces()} and is only rebuilt after the position
+ * changes.
+ * </p>
+ */
+public final class Bitboard {
+
+    /*
+     * Sides, piece types and piece codes
+     */
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int ROOK = Title.R.ordinal();
+    public static final int KNIGHT = Title.N.ordinal();
+    public static final int BISHOP = Title.B.ordinal();
+    public static final int QUEEN = Title.Q.ordinal();
+    public static final int KING = Title.K.ordinal();
+    public static final int PAWN = Title.P.ordinal();
+
+    public static final int PIECE_TYPES = 6;
+    public static final int PIECE_CODES = 2 * PIECE_TYPES;
+    public static final int EMPTY = -1;
+    public static final int NO_SQUARE = -1;
+
+    /*
+     * Castling right flags
+     */
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    /*
+     * File and rank masks
+     */
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long NOT_FILE_A = ~FILE_A;
+    public static final long NOT_FILE_H = ~FILE_H;
+    public static final long NOT_FILE_AB = ~(FILE_A | FILE_B);
+    public static final long NOT_FILE_GH = ~(FILE_G | FILE_H);
+
+    /*
+     * Squares used by castling
+     */
+    static final int WHITE_KING_HOME = 60;
+    static final int BLACK_KING_HOME = 4;
+    static final int WHITE_KINGSIDE_ROOK = 63;
+    static final int WHITE_QUEENSIDE_ROOK = 56;
+    static final int BLACK_KINGSIDE_ROOK = 7;
+    static final int BLACK_QUEENSIDE_ROOK = 0;
+
+    private static final int BOARD_DIMENSIONS = 8;
+    private static final int SQUARES = 64;
+    private static final Title[] TITLES = Title.values();
+    private static final Color[] COLORS = Color.values();
+
+    /**
+     * Castling rights kept after a piece moves from or to each square.
+     */
+    private static final int[] CASTLING_MASK = new int[SQUARES];
+
+    static {
+        for (int i = 0; i < SQUARES; i++) CASTLING_MASK[i] = ALL_CASTLING;
+        CASTLING_MASK[WHITE_KING_HOME] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[BLACK_KING_HOME] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[WHITE_KINGSIDE_ROOK] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[WHITE_QUEENSIDE_ROOK] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[BLACK_KINGSIDE_ROOK] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[BLACK_QUEENSIDE_ROOK] &= ~BLACK_QUEENSIDE;
+    }
+
+    /*
+     * Instance variables
+     */
+    private final long[] pieces = new long[PIECE_CODES];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final byte[] mailbox = new byte[SQUARES];
+    private final byte[][] pieceSquares = new byte[2][SQUARES];
+    private final int[] pieceCounts = new int[2];
+    private final byte[] pieceIndex = new byte[SQUARES];
+    private final int[] kingSquares = {NO_SQUARE, NO_SQUARE};
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long key;
+    private long materialKey;
+    private Piece[][] view;
+
+    /**
+     * Creates an empty position with white to move.
+     */
+    public Bitboard() {
+        Arrays.fill(this.mailbox, (byte) EMPTY);
+        this.sideToMove = WHITE;
+        this.enPassantSquare = NO_SQUARE;
+        this.fullmoveNumber = 1;
+        this.key = this.computeKey();
+    }
+
+    /**
+     * Copy constructor. The copy shares no mutable state with {@code other}.
+     *
+     * @param other the position to copy
+     */
+    public Bitboard(Bitboard other) {
+        System.arraycopy(other.pieces, 0, this.pieces, 0, PIECE_CODES);
+        System.arraycopy(other.colors, 0, this.colors, 0, 2);
+        System.arraycopy(other.mailbox, 0, this.mailbox, 0, SQUARES);
+        for (int side = WHITE; side <= BLACK; side++) {
+            System.arraycopy(other.pieceSquares[side], 0, this.pieceSquares[side], 0, other.pieceCounts[side]);
+            this.pieceCounts[side] = other.pieceCounts[side];
+            this.kingSquares[side] = other.kingSquares[side];
+        }
+        System.arraycopy(other.pieceIndex, 0, this.pieceIndex, 0, SQUARES);
+        this.occupied = other.occupied;
+        this.sideToMove = other.sideToMove;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.halfmoveClock = other.halfmoveClock;
+        this.fullmoveNumber = other.fullmoveNumber;
+        this.key = other.key;
+        this.materialKey = other.materialKey;
+    }
+
+    /**
+     * Builds a position from a {@code Piece[][]} board. Castling rights are taken from
+     * {@link King#hasMoved()} and {@link Rook#hasMoved()}, and the en passant square from
+     * {@link Pawn#getEnPassantTurn()}.
+     *
+     * @param board the board to convert
+     * @param sideToMove the color to move
+     * @param turnCount the current turn count (full move number)
+     * @return the equivalent position
+     */
+    public static Bitboard fromPieces(Piece[][] board, Color sideToMove, int turnCount) {
+        Bitboard position = new Bitboard();
+        position.sideToMove = sideToMove.ordinal();
+        position.fullmoveNumber = turnCount;
+
+        for (int r = 0; r < BOARD_DIMENSIONS; r++) {
+            for (int c = 0; c < BOARD_DIMENSIONS; c++) {
+                if (board[r][c] != null) position.put(square(r, c), pieceCode(board[r][c]));
+            }
+        }
+
+        position.castlingRights = castlingRightsOf(board, Color.White, WHITE_KINGSIDE, WHITE_QUEENSIDE)
+            | castlingRightsOf(board, Color.Black, BLACK_KINGSIDE, BLACK_QUEENSIDE);
+
+        // The pawn that just pushed two squares belongs to the side that is not moving
+        int pushedRow = (sideToMove == Color.White) ? 3 : 4;
+        int passedRow = (sideToMove == Color.White) ? 2 : 5;
+        int pushTurn = (sideToMove == Color.White) ? turnCount - 1 : turnCount;
+        for (int c = 0; c < BOARD_DIMENSIONS; c++) {
+            Piece piece = board[pushedRow][c];
+            if (piece instanceof Pawn && piece.getColor() != sideToMove
+                && ((Pawn) piece).getEnPassantTurn() == pushTurn
+                && board[passedRow][c] == null) {
+                position.enPassantSquare = square(passedRow, c);
+            }
+        }
+
+        position.key = position.computeKey();
+        return position;
+    }
+
+    /**
+     * Builds a position from Forsyth-Edwards Notation. The halfmove clock and fullmove number fields
+     * are optional and default to 0 and 1.
+     *
+     * @param fen the FEN string, e.g. {@link Fen#STARTING_POSITION}
+     * @return the described position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     * @see Fen#parse(String)
+     */
+    public static Bitboard fromFen(String fen) {return Fen.parse(fen);}
+
+    /**
+     * Returns this position in Forsyth-Edwards Notation.
+     *
+     * @see Fen#toFen(Bitboard)
+     */
+    public String toFen() {return Fen.toFen(this);}
+
+    /**
+     * Puts {@code piece} on an empty square while a position is being set up.
+     */
+    void setPiece(int square, int piece) {
+        if (this.mailbox[square] != EMPTY) throw new IllegalArgumentException("Square " + squareName(square) + " is occupied.");
+        this.put(square, piece);
+        this.view = null;
+    }
+
+    /**
+     * Sets everything but the pieces once a position has been set up, and recomputes its key.
+     */
+    void setState(int sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.key = this.computeKey();
+        this.view = null;
+    }
+
+    private static int castlingRightsOf(Piece[][] board, Color color, int kingside, int queenside) {
+        int row = (color == Color.White) ? 7 : 0;
+        Piece king = board[row][4];
+        if (!(king instanceof King) || king.getColor() != color || ((King) king).hasMoved()) return 0;
+
+        int rights = 0;
+        Piece rook = board[row][7];
+        if (rook instanceof Rook && rook.getColor() == color && !((Rook) rook).hasMoved()) rights |= kingside;
+        rook = board[row][0];
+        if (rook instanceof Rook && rook.getColor() == color && !((Rook) rook).hasMoved()) rights |= queenside;
+        return rights;
+    }
+
+    /*
+     * Square and piece code helpers
+     */
+    public static int square(int row, int column) {return row * BOARD_DIMENSIONS + column;}
+
+    public static int square(Position position) {return square(position.getRow(), position.getColumn());}
+
+    public static int row(int square) {return square >>> 3;}
+
+    public static int column(int square) {return square & 7;}
+
+    public static Position toPosition(int square) {return new Position(row(square), column(square));}
+
+    /**
+     * Returns the algebraic name of a square, e.g. {@code "e4"}.
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + column(square)) + (char) ('8' - row(square));
+    }
+
+    public static int pieceCode(int side, int type) {return side * PIECE_TYPES + type;}
+
+    public static int sideOf(int piece) {return piece / PIECE_TYPES;}
+
+    public static int typeOf(int piece) {return piece % PIECE_TYPES;}
+
+    /**
+     * Returns the piece code of a {@link Piece} object.
+     *
+     * @param piece the piece to encode
+     * @return the piece code
+     * @throws IllegalArgumentException if the piece is not one of the standard piece classes
+     */
+    public static int pieceCode(Piece piece) {
+        int side = piece.getColor().ordinal();
+        if (piece instanceof Pawn) return pieceCode(side, PAWN);
+        if (piece instanceof Knight) return pieceCode(side, KNIGHT);
+        if (piece instanceof Bishop) return pieceCode(side, BISHOP);
+        if (piece instanceof Rook) return pieceCode(side, ROOK);
+        if (piece instanceof Queen) return pieceCode(side, QUEEN);
+        if (piece instanceof King) return pieceCode(side, KING);
+        throw new IllegalArgumentException("Unknown piece type: " + piece.getClass().getSimpleName());
+    }
+
+    /*
+     * Getter methods
+     */
+    public int pieceAt(int square) {return this.mailbox[square];}
+
+    public long getPieces(int piece) {return this.pieces[piece];}
+
+    public long getPieces(int side, int type) {return this.pieces[pieceCode(side, type)];}
+
+    public long getOccupancy(int side) {return this.colors[side];}
+
+    public long getOccupied() {return this.occupied;}
+
+    public int getSideToMove() {return this.sideToMove;}
+
+    public Color getTurnColor() {return COLORS[this.sideToMove];}
+
+    public int getCastlingRights() {return this.castlingRights;}
+
+    public int getEnPassantSquare() {return this.enPassantSquare;}
+
+    public int getHalfmoveClock() {return this.halfmoveClock;}
+
+    public int getFullmoveNumber() {return this.fullmoveNumber;}
+
+    public long getKey() {return this.key;}
+
+    /**
+     * Returns the material signature of this position, which {@link Material} reads.
+     */
+    public long getMaterialKey() {return this.materialKey;}
+
+    /**
+     * Determines if neither side has enough material left to checkmate.
+     */
+    public boolean isInsufficientMaterial() {return Material.isInsufficient(this.materialKey);}
+
+    public int kingSquare(int side) {return this.kingSquares[side];}
+
+    /**
+     * Returns the number of pieces {@code side} has on the board, kings included.
+     */
+    public int getPieceCount(int side) {return this.pieceCounts[side];}
+
+    /**
+     * Returns the square of the {@code index}th piece of {@code side}. Pieces are listed in no
+     * particular order, and the order changes as moves are played.
+     *
+     * @param side the side whose pieces to list
+     * @param index an index below {@link #getPieceCount(int)}
+     * @return the square of that piece
+     */
+    public int getPieceSquare(int side, int index) {return this.pieceSquares[side][index];}
+
+    /**
+     * Returns every piece of {@code bySide} that attacks {@code square}, treating {@code occupied}
+     * as the set of blocking squares for sliding pieces.
+     *
+     * @param square the square being attacked
+     * @param bySide the attacking side
+     * @param occupied the occupancy to use for sliding attacks
+     * @return a board of attacking pieces
+     */
+    public long attackersTo(int square, int bySide, long occupied) {
+        int offset = bySide * PIECE_TYPES;
+        long queens = this.pieces[offset + QUEEN];
+        return (Pawn.attacks(square, bySide ^ 1) & this.pieces[offset + PAWN])
+            | (Knight.attacks(square) & this.pieces[offset + KNIGHT])
+            | (King.attacks(square) & this.pieces[offset + KING])
+            | (Bishop.attacks(square, occupied) & (this.pieces[offset + BISHOP] | queens))
+            | (Rook.attacks(square, occupied) & (this.pieces[offset + ROOK] | queens));
+    }
+
+    public boolean isSquareAttacked(int square, int bySide) {
+        return this.attackersTo(square, bySide, this.occupied) != 0;
+    }
+
+    /**
+     * Determines if the king of {@code side} is attacked.
+     *
+     * @param side the side whose king is tested
+     * @return {@code true} if that king is in check
+     */
+    public boolean isInCheck(int side) {
+        int king = this.kingSquare(side);
+        return king != NO_SQUARE && this.isSquareAttacked(king, side ^ 1);
+    }
+
+    public boolean isInCheck() {return this.isInCheck(this.sideToMove);}
+
+    /**
+     * Returns the squares the piece on {@code from} can move to according to its movement rules,
+     * including castling and en passant, without considering whether its own king is left in check.
+     *
+     * @param from the square of the piece to move
+     * @return a board of target squares, or 0 if the square is empty
+     */
+    public long pseudoLegalTargets(int from) {
+        int piece = this.mailbox[from];
+        if (piece == EMPTY) return 0L;
+
+        int side = sideOf(piece);
+        long notOwn = ~this.colors[side];
+        int type = typeOf(piece);
+
+        if (type == KNIGHT) return Knight.attacks(from) & notOwn;
+        if (type == BISHOP) return Bishop.attacks(from, this.occupied) & notOwn;
+        if (type == ROOK) return Rook.attacks(from, this.occupied) & notOwn;
+        if (type == QUEEN) return Queen.attacks(from, this.occupied) & notOwn;
+        if (type == KING) return (King.attacks(from) & notOwn) | this.castlingTargets(side, from);
+        return this.pawnTargets(side, from);
+    }
+
+    private long pawnTargets(int side, int from) {
+        long empty = ~this.occupied;
+        long fromBit = 1L << from;
+        long targets;
+
+        if (side == WHITE) {
+            long single = (fromBit >>> 8) & empty;
+            targets = single;
+            if (row(from) == 6) targets |= (single >>> 8) & empty;
+        } else {
+            long single = (fromBit << 8) & empty;
+            targets = single;
+            if (row(from) == 1) targets |= (single << 8) & empty;
+        }
+
+        long enemies = this.colors[side ^ 1];
+        if (this.enPassantSquare != NO_SQUARE) enemies |= 1L << this.enPassantSquare;
+        return targets | (Pawn.attacks(from, side) & enemies);
+    }
+
+    private long castlingTargets(int side, int from) {
+        int home = (side == WHITE) ? WHITE_KING_HOME : BLACK_KING_HOME;
+        int kingside = (side == WHITE) ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenside = (side == WHITE) ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if (from != home || (this.castlingRights & (kingside | queenside)) == 0) return 0L;
+
+        int enemy = side ^ 1;
+        if (this.isSquareAttacked(home, enemy)) return 0L;
+
+        long targets = 0L;
+        // Squares between king and rook must be empty and the square the king passes must be safe
+        if ((this.castlingRights & kingside) != 0
+            && (this.occupied & (3L << (home + 1))) == 0
+            && !this.isSquareAttacked(home + 1, enemy))
+                targets |= 1L << (home + 2);
+        if ((this.castlingRights & queenside) != 0
+            && (this.occupied & (7L << (home - 3))) == 0
+            && !this.isSquareAttacked(home - 1, enemy))
+                targets |= 1L << (home - 2);
+        return targets;
+    }
+
+    /**
+     * Plays a {@link Move}-encoded move on this position in place. The move is assumed to be legal.
+     *
+     * @param move the packed move
+     * @return an {@link UndoRecord} that {@link #unmakeMove(long)} uses to restore this position
+     */
+    public long makeMove(int move) {
+        return this.makeMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    /**
+     * Plays a move on this position in place. The move is assumed to be legal.
+     *
+     * @param from the square of the piece to move
+     * @param to the destination square
+     * @param promotion the piece type a pawn promotes to when it reaches the last row; ignored for
+     *                  other moves, and a queen is chosen if it is not a valid promotion type
+     * @return an {@link UndoRecord} that {@link #unmakeMove(long)} uses to restore this position
+     */
+    public long makeMove(int from, int to, int promotion) {
+        int piece = this.mailbox[from];
+        int side = sideOf(piece);
+        int type = typeOf(piece);
+        int captured = this.mailbox[to];
+        boolean enPassant = type == PAWN && to == this.enPassantSquare;
+        boolean castle = type == KING && Math.abs(to - from) == 2;
+
+        long undo = UndoRecord.pack(from, to, piece, 
+            enPassant ? pieceCode(side ^ 1, PAWN) : captured, 
+            this.castlingRights, this.enPassantSquare, this.halfmoveClock, enPassant, castle);
+
+        this.key ^= Zobrist.castling(this.castlingRights) ^ this.enPassantKey();
+
+        if (captured != EMPTY) this.remove(to);
+        if (enPassant) this.remove(to + ((side == WHITE) ? 8 : -8));
+
+        this.remove(from);
+        if (type == PAWN && (row(to) == 0 || row(to) == 7)) {
+            boolean valid = promotion == QUEEN || promotion == ROOK || promotion == BISHOP || promotion == KNIGHT;
+            this.put(to, pieceCode(side, valid ? promotion : QUEEN));
+        } else {
+            this.put(to, piece);
+        }
+
+        // Castling moves the rook alongside the king
+        if (castle) {
+            int rookFrom = (to > from) ? from + 3 : from - 4;
+            int rookTo = (to > from) ? from + 1 : from - 1;
+            this.put(rookTo, this.mailbox[rookFrom]);
+            this.remove(rookFrom);
+        }
+
+        this.castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        this.enPassantSquare = (type == PAWN && Math.abs(to - from) == 16) ? (from + to) >>> 1 : NO_SQUARE;
+        this.halfmoveClock = (type == PAWN || captured != EMPTY) ? 0 : this.halfmoveClock + 1;
+        if (side == BLACK) this.fullmoveNumber++;
+        this.sideToMove = side ^ 1;
+        this.key ^= Zobrist.castling(this.castlingRights) ^ this.enPassantKey() ^ Zobrist.blackToMove();
+        this.view = null;
+        return undo;
+    }
+
+    /**
+     * Takes back the move described by {@code undo}, which must be the record returned by the most
+     * recent {@link #makeMove} that has not been taken back yet.
+     *
+     * @param undo the undo record of the move to take back
+     */
+    public void unmakeMove(long undo) {
+        int from = UndoRecord.from(undo);
+        int to = UndoRecord.to(undo);
+        int piece = UndoRecord.movedPiece(undo);
+        int captured = UndoRecord.capturedPiece(undo);
+        int side = sideOf(piece);
+
+        this.key ^= Zobrist.castling(this.castlingRights) ^ this.enPassantKey();
+
+        if (UndoRecord.isCastle(undo)) {
+            int rookFrom = (to > from) ? from + 3 : from - 4;
+            int rookTo = (to > from) ? from + 1 : from - 1;
+            this.put(rookFrom, this.mailbox[rookTo]);
+            this.remove(rookTo);
+        }
+
+        this.remove(to);
+        this.put(from, piece);
+
+        if (UndoRecord.isEnPassant(undo)) this.put(to + ((side == WHITE) ? 8 : -8), captured);
+        else if (captured != EMPTY) this.put(to, captured);
+
+        this.castlingRights = UndoRecord.castlingRights(undo);
+        this.enPassantSquare = UndoRecord.enPassantSquare(undo);
+        this.halfmoveClock = UndoRecord.halfmoveClock(undo);
+        if (side == BLACK) this.fullmoveNumber--;
+        this.sideToMove = side;
+        this.key ^= Zobrist.castling(this.castlingRights) ^ this.enPassantKey() ^ Zobrist.blackToMove();
+        this.view = null;
+    }
+
+    private void put(int square, int piece) {
+        int side = sideOf(piece);
+        long bit = 1L << square;
+        this.pieces[piece] |= bit;
+        this.colors[side] |= bit;
+        this.occupied |= bit;
+        this.mailbox[square] = (byte) piece;
+        this.key ^= Zobrist.pieceSquare(piece, square);
+        this.materialKey += Material.delta(piece, square);
+
+        this.pieceIndex[square] = (byte) this.pieceCounts[side];
+        this.pieceSquares[side][this.pieceCounts[side]++] = (byte) square;
+        if (typeOf(piece) == KING) this.kingSquares[side] = Long.numberOfTrailingZeros(this.pieces[piece]);
+    }
+
+    private void remove(int square) {
+        int piece = this.mailbox[square];
+        int side = sideOf(piece);
+        long bit = ~(1L << square);
+        this.pieces[piece] &= bit;
+        this.colors[side] &= bit;
+        this.occupied &= bit;
+        this.mailbox[square] = (byte) EMPTY;
+        this.key ^= Zobrist.pieceSquare(piece, square);
+        this.materialKey -= Material.delta(piece, square);
+
+        // The last square in the list fills the gap
+        int index = this.pieceIndex[square];
+        int last = this.pieceSquares[side][--this.pieceCounts[side]];
+        this.pieceSquares[side][index] = (byte) last;
+        this.pieceIndex[last] = (byte) index;
+        if (typeOf(piece) == KING) {
+            long kings = this.pieces[piece];
+            this.kingSquares[side] = (kings == 0) ? NO_SQUARE : Long.numberOfTrailingZeros(kings);
+        }
+    }
+
+    /**
+     * Returns the en passant part of the key. The file is only hashed when a pawn of the side to move
+     * could capture on the en passant square, so positions that only differ by an unusable en passant
+     * square share a key.
+     */
+    private long enPassantKey() {
+        if (this.enPassantSquare == NO_SQUARE) return 0L;
+
+        long capturers = Pawn.attacks(this.enPassantSquare, this.sideToMove ^ 1)
+            & this.pieces[pieceCode(this.sideToMove, PAWN)];
+        return (capturers == 0) ? 0L : Zobrist.enPassantFile(column(this.enPassantSquare));
+    }
+
+    /**
+     * Computes the Zobrist key of this position from scratch.
+     *
+     * @return the key of this position
+     */
+    public long computeKey() {
+        long hash = Zobrist.castling(this.castlingRights) ^ this.enPassantKey();
+        if (this.sideToMove == BLACK) hash ^= Zobrist.blackToMove();
+        for (int sq = 0; sq < SQUARES; sq++) {
+            if (this.mailbox[sq] != EMPTY) hash ^= Zobrist.pieceSquare(this.mailbox[sq], sq);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the {@code Piece[][]} view of this position, building it on first use after a change.
+     * King and rook move flags follow the castling rights, and the pawn that can be captured en
+     * passant carries a matching en passant turn.
+     *
+     * @return the board view of this position
+     */
+    public Piece[][] toPieces() {
+        if (this.view != null) return this.view;
+
+        Piece[][] board = new Piece[BOARD_DIMENSIONS][BOARD_DIMENSIONS];
+        int pushedPawn = (this.enPassantSquare == NO_SQUARE) ? NO_SQUARE
+            : this.enPassantSquare + ((this.sideToMove == WHITE) ? 8 : -8);
+
+        for (int sq = 0; sq < SQUARES; sq++) {
+            int code = this.mailbox[sq];
+            if (code == EMPTY) continue;
+
+            int side = sideOf(code);
+            Piece piece = PieceFactory.create(TITLES[typeOf(code)], toPosition(sq), COLORS[side]);
+            if (piece instanceof King) {
+                int rights = (side == WHITE) ? WHITE_KINGSIDE | WHITE_QUEENSIDE : BLACK_KINGSIDE | BLACK_QUEENSIDE;
+                ((King) piece).setHasMoved((this.castlingRights & rights) == 0);
+            } else if (piece instanceof Rook) {
+                ((Rook) piece).setHasMoved(!this.isCastlingRook(sq, side));
+            } else if (piece instanceof Pawn && sq == pushedPawn) {
+                int pushTurn = (this.sideToMove == WHITE) ? this.fullmoveNumber - 1 : this.fullmoveNumber;
+                ((Pawn) piece).setEnPassantTurn(pushTurn);
+            }
+            board[row(sq)][column(sq)] = piece;
+        }
+
+        this.view = board;
+        return board;
+    }
+
+    /**
+     * Determines if {@code board} is the view {@link #toPieces()} built for the current position,
+     * so its pieces stand on the squares of the piece lists.
+     */
+    boolean isCurrentView(Piece[][] board) {return board != null && board == this.view;}
+
+    private boolean isCastlingRook(int square, int side) {
+        if (side == WHITE) {
+            return (square == WHITE_KINGSIDE_ROOK && (this.castlingRights & WHITE_KINGSIDE) != 0)
+                || (square == WHITE_QUEENSIDE_ROOK && (this.castlingRights & WHITE_QUEENSIDE) != 0);
+        }
+        return (square == BLACK_KINGSIDE_ROOK && (this.castlingRights & BLACK_KINGSIDE) != 0)
+            || (square == BLACK_QUEENSIDE_ROOK && (this.castlingRights & BLACK_QUEENSIDE) != 0);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Bitboard)) return false;
+
+        Bitboard other = (Bitboard) obj;
+        return this.key == other.key
+            && Arrays.equals(this.pieces, other.pieces)
+            && this.sideToMove == other.sideToMove
+            && this.castlingRights == other.castlingRights
+            && this.enPassantSquare == other.enPassantSquare
+            && this.halfmoveClock == other.halfmoveClock
+            && this.fullmoveNumber == other.fullmoveNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (this.key ^ (this.key >>> 32));
+    }
+}
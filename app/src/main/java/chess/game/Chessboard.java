@@ -1,9 +1,8 @@
 package chess.game;
 
-import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.Stack;
 
 import chess.game.PieceBehaviors.Title;
 
@@ -19,19 +18,20 @@ public class Chessboard {
     private static final int BLACK_BACK_ROW = 0;
     private static final int BLACK_PAWN_ROW = 6;
     private static final int WHITE_PAWN_ROW = 1;
+
+    /*
+     * Halfmove clock values at which a draw may be claimed, and at which the game is drawn
+     */
+    public static final int FIFTY_MOVE_PLIES = 100;
+    public static final int SEVENTY_FIVE_MOVE_PLIES = 150;
     
     /*
      * Instance variables
      */
-    private Stack<Piece[][]> boardHistory;
-    // private King whiteKing;
-    // private King blackKing;
-    private ArrayList<String> moveHistory;
+    private GameHistory history;
+    private RepetitionHistory repetitions;
+    private Bitboard position;
     private GameState gameState;
-    private int turnCount;
-    private Color turnColor;
-    // private Set<Piece> whitePieces;
-    // private Set<Piece> blackPieces;
     private Position selectedPosition;
     private PromotionListener promotionListener;
 
@@ -39,16 +39,32 @@ public class Chessboard {
      * Initializes the chessboard with pieces in their starting positions.
      */
     public Chessboard() {
-        this.boardHistory = new Stack<>();
         Piece[][] board = new Piece[BOARD_DIMENSIONS][BOARD_DIMENSIONS];
-        this.moveHistory = new ArrayList<>();
         this.gameState = GameState.ongoing;
-        this.turnCount = 1;
-        this.turnColor = Color.White;
-        // this.blackPieces = new HashSet<>(16);
-        // this.whitePieces = new HashSet<>(16);
         this.initializeBoard(board);
-        this.boardHistory.push(board);
+        this.position = Bitboard.fromPieces(board, Color.White, 1);
+        this.history = new GameHistory(this.position);
+        this.repetitions = new RepetitionHistory(this.position.getKey());
+    }
+
+    /**
+     * Initializes the chessboard on the position described by a FEN string.
+     *
+     * @param fen the FEN string, e.g. {@link Fen#STARTING_POSITION}
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public Chessboard(String fen) {
+        this(Fen.parse(fen));
+    }
+
+    /**
+     * Initializes the chessboard on a copy of an arbitrary position, e.g. one read from FEN.
+     */
+    Chessboard(Bitboard position) {
+        this.gameState = GameState.ongoing;
+        this.position = new Bitboard(position);
+        this.history = new GameHistory(this.position);
+        this.repetitions = new RepetitionHistory(this.position.getKey());
     }
 
     /**
@@ -62,9 +78,7 @@ public class Chessboard {
             Pawn pB = new Pawn(new Position(BLACK_PAWN_ROW, i), Color.White);
 
             board[WHITE_PAWN_ROW][i] = pW;
-            // blackPieces.add(pW);
             board[BLACK_PAWN_ROW][i] = pB;
-            // whitePieces.add(pB);
 
         }
 
@@ -82,26 +96,21 @@ public class Chessboard {
             Title.K, 
             positionWK, 
             Color.White); 
-        // whitePieces.add(kingW);
         addToBoard(board, positionWK, kingW);
-        // whiteKing = (King) kingW;
 
         var positionBK = new Position(BLACK_BACK_ROW, KING_COLUMN);
         var kingB = PieceFactory.create(
             Title.K, 
             positionBK, 
             Color.Black); 
-        // blackPieces.add(kingB);
         addToBoard(board, positionBK, kingB);
-        // blackKing = (King) kingB; 
     }
 
     private void createPiece(Title title, int column, Piece[][] board) {
         var positionWQ = new Position(WHITE_BACK_ROW, column);
         var pieceW = PieceFactory.create(
             title, 
-            positionWQ, turnColor); 
-        // whitePieces.add(pieceW);
+            positionWQ, Color.White); 
         addToBoard(board, positionWQ, pieceW);
         
         var positionBQ = new Position(BLACK_BACK_ROW, column);
@@ -109,7 +118,6 @@ public class Chessboard {
             title, 
             positionBQ, 
             Color.Black);
-        // blackPieces.add(pieceB);
         addToBoard(board, positionBQ, pieceB);
     }
 
@@ -122,180 +130,205 @@ public class Chessboard {
      */
     public GameState getGameState() {return this.gameState;}
     
-    public int getTurnCount() {return this.turnCount;}
+    public int getTurnCount() {return this.position.getFullmoveNumber();}
 
-    public boolean isWhiteTurn() {return this.turnColor == Color.White;}
+    public boolean isWhiteTurn() {return this.position.getSideToMove() == Bitboard.WHITE;}
 
-    public boolean isBlackTurn() {return this.turnColor == Color.Black;}
+    public boolean isBlackTurn() {return this.position.getSideToMove() == Bitboard.BLACK;}
 
-    public ArrayList<String> getMoveHistory() {return this.moveHistory;}
+    /**
+     * Returns the moves played so far in SAN. The history keeps only encoded moves, so the list is
+     * written out from the starting position on each call.
+     */
+    public List<String> getMoveHistory() {return this.history.toSan();}
+
+    public GameHistory getHistory() {return this.history;}
+
+    /**
+     * Rebuilds the position after {@code ply} moves of this game.
+     *
+     * @param ply the number of moves played, from 0 for the starting position
+     * @return a new copy of the position
+     */
+    public Bitboard getPositionAt(int ply) {return this.history.positionAt(ply);}
 
-    public Stack<Piece[][]> getBoardHistory() {return this.boardHistory;}
+    public Bitboard getPosition() {return this.position;}
 
-    public Piece[][] getBoard() {return this.boardHistory.peek();}
+    /**
+     * Returns the current position in Forsyth-Edwards Notation.
+     */
+    public String toFen() {return Fen.toFen(this.position);}
+
+    /**
+     * Returns the number of plies since the last capture or pawn move.
+     */
+    public int getHalfmoveClock() {return this.position.getHalfmoveClock();}
+
+    /**
+     * Returns a {@link MoveContext} backed by the current position.
+     */
+    public MoveContext getMoveContext() {return new MoveContext(this.position);}
+
+    /**
+     * Returns the Zobrist key of the current position, which identifies it in constant time.
+     */
+    public long getKey() {return this.position.getKey();}
+
+    /**
+     * Returns the {@code Piece[][]} view of the current position. The view is derived from the
+     * bitboard position on first use after each move.
+     */
+    public Piece[][] getBoard() {return this.position.toPieces();}
 
     /*
      * Setter methods
      */
     public void setGameState(GameState gameState) {this.gameState = gameState;}
 
-    private void endTurn() {
-        if (this.gameState != GameState.ongoing) return;
 
-        this.turnCount += (this.isBlackTurn())? 1 : 0;
-        this.turnColor = (this.isWhiteTurn())? Color.Black : Color.White;
+    public boolean tryMove(Position startingPosition, Position targetPosition) {
+        return this.tryMove(Move.encode(Bitboard.square(startingPosition), Bitboard.square(targetPosition), Bitboard.EMPTY, 0));
     }
 
-    public void addToMoveHistory(String move) {this.moveHistory.add(move);}
+    /**
+     * Plays a move written in Standard Algebraic Notation, e.g. {@code "Nf3"} or {@code "exd8=Q"},
+     * if it is legal.
+     *
+     * @param san the move in SAN
+     * @return {@code true} if the move was played
+     */
+    public boolean tryMove(String san) {
+        if (this.gameState != GameState.ongoing) return false;
 
+        try {
+            return this.tryMove(San.parse(this.position, san));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid move: " + e.getMessage());
+            return false;
+        }
+    }
 
-    public boolean tryMove(Position startingPosition, Position targetPosition) {
+    /**
+     * Plays a {@link Move}-encoded move if it is legal. A pawn reaching the last row becomes the
+     * move's promotion piece, or the promotion listener's choice if the move names none.
+     *
+     * @param move the packed move
+     * @return {@code true} if the move was played
+     */
+    public boolean tryMove(int move) {
         if (this.gameState != GameState.ongoing) return false;
 
-        var board = MoveValidator.cloneBoard(this.getBoard());
-        var mContext = new MoveContext(this.turnCount, board);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = this.position.pieceAt(from);
 
-        int row = startingPosition.getRow();
-        int col = startingPosition.getColumn();
-        Piece piece = board[row][col];
-
-        if (piece == null || piece.getColor() != this.turnColor) {
+        if (piece == Bitboard.EMPTY || Bitboard.sideOf(piece) != this.position.getSideToMove()) {
             System.out.println("Invalid move: No piece at starting position or wrong color");
             return false;
         }
 
-        if (!MoveValidator.validateMove(piece, targetPosition, mContext)) 
+        if (!MoveValidator.validateMove(this.position, from, to)) 
             return false;
 
-        // boolean pawnPromoted = false;
-        if (this.checkPawnPromotion(piece, targetPosition, board)) {
-            piece = board[targetPosition.getRow()][targetPosition.getColumn()];
-            board[row][col] = null; 
-            // whitePieces.remove(piece);
-            // Check for checkmate or stalemate
-            // if (this.isInCheckmate(mContext)) {
-            //     this.gameState = (this.isWhiteTurn())? GameState.whiteWon : GameState.blackWon;
-            // } else if (this.isStalemate(mContext)) {
-            //     this.gameState = GameState.draw;
-            // }
-
-            // this.addToMoveHistory(piece + " from " + startingPosition + " to " + targetPosition);
-            // this.boardHistory.push(board);
-            // this.endTurn();
-
-            // return true;
-        }
-
-        // var piecesToUpdate = (this.isWhiteTurn())? this.whitePieces : this.blackPieces;
-        // piecesToUpdate.remove(piece);
-
-
-        piece.move(targetPosition, mContext);
-        // piecesToUpdate.add(piece);
-
-        board[row][col] = null;
-        int targetR = targetPosition.getRow();
-        int targetC = targetPosition.getColumn();
-        // var captured = board[targetR][targetC];
-        board[targetR][targetC] = piece;
-
-        // if (captured != null) {
-        //     if (this.isWhiteTurn()) {
-        //         // this.blackPieces.remove(captured);
-        //     } else {
-        //         // this.whitePieces.remove(captured);
-        //     }
-        // }
-
-        // if (this.isWhiteTurn()) {
-        //     // this.whitePieces.remove(piece);
-        //     // this.whitePieces.add(piece);
-        //     // if (piece instanceof King) 
-        //         // this.whiteKing = (King) piece;
-            
-        // } else {
-        //     // this.blackPieces.remove(piece);
-        //     // this.blackPieces.add(piece);
-        //     // if (piece instanceof King) 
-        //         // this.blackKing = (King) piece;
-        // }
-        // if (piece instanceof King) {
-        //     King king = (King) piece;
-        //     for (int i = 0; i < king.CASTLE_POSITION.length; i++) {
-        //         if (king.CASTLE_POSITION[i].equals(targetPosition)) {
-        //             int rowK = king.CASTLE_POSITION[i].getRow();
-        //             int rCol = i == 0 ? 0 : BOARD_DIMENSIONS - 1;
-
-        //             var rook = board[rowK][rCol];
-        //             board[rowK][rCol] = null;
-
-        //             int newRCol = i == 0 ? 3 : 5;
-        //             board[rowK][newRCol] = rook;
-        //             rook.move(new Position(rowK, newRCol), mContext);
-        //         }
-        //     }
-        // }
-
-        // Check for checkmate or stalemate
-        Color colorToCheck = (this.isWhiteTurn())? Color.Black : Color.White;
-        King kingToCheckMate = this.getKing(mContext.getBoard(), colorToCheck);
-        var allPiecesToCheck = this.getColorPieces(mContext.getBoard(), colorToCheck);
-        if (this.isInCheckmate(mContext, kingToCheckMate, allPiecesToCheck)) {
-            this.gameState = (this.isWhiteTurn())? GameState.whiteWon : GameState.blackWon;
-        } else if (this.isStalemate(mContext, kingToCheckMate, allPiecesToCheck)) {
+        Position targetPosition = Bitboard.toPosition(to);
+        int promotion = Bitboard.EMPTY;
+        if (Bitboard.typeOf(piece) == Bitboard.PAWN && (Bitboard.row(to) == 0 || Bitboard.row(to) == BOARD_DIMENSIONS - 1))
+            promotion = Move.isPromotion(move) ? Move.promotion(move) : this.checkPawnPromotion(piece, targetPosition);
+
+        boolean whiteMoved = this.isWhiteTurn();
+        this.history.play(this.position, Move.of(this.position, from, to, promotion));
+        this.repetitions.push(this.position.getKey());
+
+        // Check for checkmate, then for stalemate, insufficient material, fivefold repetition
+        // or the seventy-five-move rule
+        LegalMoveGenerator replies = new LegalMoveGenerator(this.position);
+        if (this.isInCheckmate(replies)) {
+            this.gameState = (whiteMoved)? GameState.whiteWon : GameState.blackWon;
+        } else if (this.position.isInsufficientMaterial() || this.isStalemate(replies)
+                   || this.isFivefoldRepetition() || this.getHalfmoveClock() >= SEVENTY_FIVE_MOVE_PLIES) {
             this.gameState = GameState.draw;
         }
 
-        this.addToMoveHistory("" + startingPosition + targetPosition);
-        this.boardHistory.push(board);
-        this.endTurn();
+        return true;
+    }
 
+    /**
+     * Takes back the last move played and reopens the game if that move ended it.
+     *
+     * @return {@code true} if a move was taken back
+     */
+    public boolean undoMove() {
+        if (this.history.isEmpty()) return false;
+
+        this.history.undo(this.position);
+        this.repetitions.pop();
+        this.gameState = GameState.ongoing;
+        this.selectedPosition = null;
         return true;
     }
 
-    private boolean isStalemate(MoveContext mContext, King kingToCheckMate, HashSet<Piece> allPiecesToCheck) {
-        // Color colorToCheck = (this.isWhiteTurn())? Color.Black : Color.White;
-        // King kingToCheckMate = this.getKing(mContext.getBoard(), colorToCheck);
-        // var allPiecesToCheck = this.getColorPieces(mContext.getBoard(), colorToCheck);
+    /**
+     * Determines if the current position has occurred three times with the same player to move, so
+     * either player may claim a draw.
+     */
+    public boolean isThreefoldRepetition() {
+        return this.repetitions.isThreefoldRepetition(this.position.getHalfmoveClock());
+    }
 
-        if (kingToCheckMate.isInCheck(mContext)) {
-            return false; // Not a stalemate if the king is in check
-        }
+    /**
+     * Determines if the current position has occurred five times with the same player to move,
+     * which draws the game without a claim.
+     */
+    public boolean isFivefoldRepetition() {
+        return this.repetitions.isFivefoldRepetition(this.position.getHalfmoveClock());
+    }
 
-        for (Piece piece : allPiecesToCheck) {
-            var possibleMoves = piece.generatePseudoLegalMoves(mContext);
-            if (!possibleMoves.isEmpty()) {
-                return false; // If any piece has a legal move, it's not stalemate
-            }
-        }
-        return true; // If no pieces have legal moves, it's stalemate
+    /**
+     * Determines if fifty moves by each player have passed without a capture or pawn move, so
+     * either player may claim a draw.
+     */
+    public boolean canClaimFiftyMoveDraw() {
+        return this.getHalfmoveClock() >= FIFTY_MOVE_PLIES;
     }
 
-    private boolean isInCheckmate(MoveContext mContext, King kingToCheckMate, HashSet<Piece> allPiecesToCheck) {
-        // Color colorToCheck = (this.isWhiteTurn())? Color.Black : Color.White;
-        // King kingToCheckMate = this.getKing(mContext.getBoard(), colorToCheck);
-        // var allPiecesToCheck = this.getColorPieces(mContext.getBoard(),colorToCheck);
+    /**
+     * Ends the game in a draw if the fifty-move rule or a threefold repetition allows it.
+     *
+     * @return {@code true} if the game was drawn
+     */
+    public boolean claimDraw() {
+        if (this.gameState != GameState.ongoing || !(this.canClaimFiftyMoveDraw() || this.isThreefoldRepetition())) return false;
+        this.gameState = GameState.draw;
+        return true;
+    }
 
-        if (!kingToCheckMate.isInCheck(mContext)) {
-            return false;
-        }
+    private boolean isStalemate(LegalMoveGenerator replies) {
+        return !replies.isInCheck() && !replies.hasLegalMove();
+    }
 
-        // Check if the king has legal moves
-        if (!kingToCheckMate.generatePseudoLegalMoves(mContext).isEmpty()) {
-            return false;
-        }
+    private boolean isInCheckmate(LegalMoveGenerator replies) {
+        return replies.isInCheck() && !replies.hasLegalMove();
+    }
 
-        for (Piece piece : allPiecesToCheck) {
-            var possibleMoves = piece.generatePseudoLegalMoves(mContext);
-            for (Position position : possibleMoves) {
-                if (MoveValidator.validateMove(piece, position, mContext))
-                    return false;
-            }
+    /**
+     * Returns the pieces of {@code color} on {@code board}. For the view {@link #getBoard()} returns
+     * of the current position only the squares in the position's piece list are read; any other
+     * board is scanned.
+     */
+    public HashSet<Piece> getColorPieces(Piece[][] board, Color color) {
+        if (!this.position.isCurrentView(board)) return this.scanColorPieces(board, color);
+
+        int side = color.ordinal();
+        int count = this.position.getPieceCount(side);
+        HashSet<Piece> colorPieces = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int square = this.position.getPieceSquare(side, i);
+            colorPieces.add(board[Bitboard.row(square)][Bitboard.column(square)]);
         }
-        return true; // No moves available to escape check
+        return colorPieces;
     }
 
-    public HashSet<Piece> getColorPieces(Piece[][] board, Color color) {
+    private HashSet<Piece> scanColorPieces(Piece[][] board, Color color) {
         HashSet<Piece> colorPieces = new HashSet<>();
         for (int r = BOARD_DIMENSIONS - 1; r >= 0; r--) {
             for (int c = 0; c < BOARD_DIMENSIONS; c++) {
@@ -330,31 +363,11 @@ public class Chessboard {
             }
         }
 
-        // Remove target piece if captured
-        var targetPiece = board[newR][newC];
-        // if (targetPiece != null) {
-        //     if (this.isWhiteTurn()) {
-        //         this.blackPieces.remove(targetPiece);
-        //     } else {
-        //         this.whitePieces.remove(targetPiece); 
-        //     }
-        // }
-
         // Update piece position without modifying hasMoved/enPassant values
         if (this.isWhiteTurn() && piece.getColor() == Color.White) {
-            // this.whitePieces.remove(piece);
             piece.getPosition().setPosition(targetPosition);
-            // this.whitePieces.add(piece);
-            // if (piece instanceof King) {
-            //     this.whiteKing = (King) piece;
-            // }
         } else if (this.isBlackTurn() && piece.getColor() == Color.Black) {
-            // this.blackPieces.remove(piece);
             piece.getPosition().setPosition(targetPosition);
-            // this.blackPieces.add(piece);
-            // if (piece instanceof King) {
-            //     this.blackKing = (King) piece;
-            // }
         }
 
         newBoard[newR][newC] = piece;
@@ -366,7 +379,7 @@ public class Chessboard {
      * Print the current state of the board.
      */
     public void printBoard() {
-        System.out.printf("--- %s's turn: %d---\n", this.turnColor, this.turnCount);
+        System.out.printf("--- %s's turn: %d---\n", this.position.getTurnColor(), this.getTurnCount());
 
         Piece[][] board = getBoard();
         for (int row = 0; row <= board.length; row++) {
@@ -389,37 +402,6 @@ public class Chessboard {
         }
     }
 
-    // public boolean tryCastling(String move) {
-    //     var king = (this.isWhiteTurn())? this.whiteKing : this.blackKing;
-    //     var position = (move.equalsIgnoreCase("O-O")) ? 
-    //         king.CASTLE_POSITION[1] : king.CASTLE_POSITION[0];
-    //     var rookColumn = (move.equalsIgnoreCase("O-O")) ? 7 : 0;
-    //     var rook = this.getBoard()[king.getPosition().getRow()][rookColumn];
-
-    //     if(king.canCastle(position, new MoveContext(this.turnCount, this.getBoard()))) {
-    //         var newRookCol = (rookColumn == 7) ? 5 : 3;
-    //         var board = this.movePiece(king, position, this.getBoard());
-    //         board = this.movePiece(rook, new Position(king.getPosition().getRow(), newRookCol), board);
-    //         king.move(position, new MoveContext(this.turnCount, board));
-    //         rook.move(new Position(king.getPosition().getRow(), newRookCol), new MoveContext(this.turnCount, board));
-    //         var mContext = new MoveContext(this.turnCount, board);
-
-    //         if (this.isInCheckmate(mContext)) {
-    //             this.gameState = (this.isWhiteTurn())? GameState.whiteWon : GameState.blackWon;
-    //             return true;
-    //         } else if (this.isStalemate(mContext)) {
-    //             this.gameState = GameState.draw;
-    //             return true;
-    //         }
-
-    //         this.boardHistory.push(board);
-    //         this.endTurn();
-
-    //         return true;
-    //     }
-    //     return false;
-    // }
-
     public boolean handleSquareSelection(int row, int col) {
         var p = new Position(row, col);
         Piece[][] board = this.getBoard();
@@ -428,8 +410,9 @@ public class Chessboard {
         var piece = board[row][col];
         var selPiece = (this.selectedPosition != null) ? board[selR][selC] : null;
 
-        if ((selPiece != null &&  selPiece.getColor() == this.turnColor) 
-            && (piece == null || piece.getColor() != this.turnColor)) {
+        Color turnColor = this.position.getTurnColor();
+        if ((selPiece != null &&  selPiece.getColor() == turnColor) 
+            && (piece == null || piece.getColor() != turnColor)) {
             System.out.println("Moving from " + this.selectedPosition + " to " + p);
             if (!this.tryMove(this.selectedPosition, p)) {
                 System.out.println("Invalid move");
@@ -454,49 +437,75 @@ public class Chessboard {
     }
 
     public Set<Position> getLegalMoves(int row, int col) {
-        Piece[][] board = this.getBoard();
-        Piece piece = board[row][col];
-        if (piece == null || piece.getColor() != this.turnColor) {
+        int from = Bitboard.square(row, col);
+        int piece = this.position.pieceAt(from);
+        if (piece == Bitboard.EMPTY || Bitboard.sideOf(piece) != this.position.getSideToMove()) {
             return new HashSet<>();
         }
 
-        var moves = piece.generatePseudoLegalMoves(new MoveContext(this.turnCount, board));
-        HashSet<Position> legalMoves = new HashSet<>();
-        for (Position pos : moves) {
-            if (MoveValidator.validateMove(piece, pos, new MoveContext(this.turnCount, board)))
-                legalMoves.add(pos);
+        long targets = new LegalMoveGenerator(this.position).legalTargets(from);
+        HashSet<Position> legalMoves = new HashSet<>(Long.bitCount(targets));
+        while (targets != 0) {
+            legalMoves.add(Bitboard.toPosition(Long.numberOfTrailingZeros(targets)));
+            targets &= targets - 1;
         }
         return legalMoves;
     }
 
+    /**
+     * Appends every legal move of the side to move to {@code moves}.
+     *
+     * @param moves the list to append to
+     */
+    public void getLegalMoves(MoveList moves) {
+        new LegalMoveGenerator(this.position).generate(moves);
+    }
+
     public King isInCheck() {
-        var board = this.getBoard();
-        var mContext = new MoveContext(this.turnCount, board);
-        var king = this.getKing(board, turnColor);
-        if (king != null && king.isInCheck(mContext)) return king;
-        else return null;
+        if (!this.position.isInCheck()) return null;
+        return this.getKing(this.getBoard(), this.position.getTurnColor());
     }
 
     public void setPromotionListener(PromotionListener listener) {
         this.promotionListener = listener;
     }
 
-    private boolean checkPawnPromotion(Piece piece, Position targetPosition, Piece[][] board) {
-        if (piece instanceof Pawn) {
-            int promotionRow = (piece.isWhite()) ? 0 : BOARD_DIMENSIONS - 1;
-            if (targetPosition.getRow() == promotionRow && this.promotionListener != null) {
-                this.promotionListener.onPawnPromotion(targetPosition, piece.getColor(), board);
-                return true;
-            }
+    /**
+     * Asks the promotion listener which piece a pawn reaching the last row becomes. The listener
+     * places its choice on the board view through {@link #promotePawn}, and the choice is read back
+     * from there. Defaults to a queen when there is no listener or no choice was made.
+     */
+    private int checkPawnPromotion(int piece, Position targetPosition) {
+        if (Bitboard.typeOf(piece) != Bitboard.PAWN) return Bitboard.QUEEN;
+
+        int promotionRow = (Bitboard.sideOf(piece) == Bitboard.WHITE) ? 0 : BOARD_DIMENSIONS - 1;
+        if (targetPosition.getRow() == promotionRow && this.promotionListener != null) {
+            Piece[][] board = this.getBoard();
+            Color color = this.position.getTurnColor();
+            this.promotionListener.onPawnPromotion(targetPosition, color, board);
+
+            Piece promoted = board[targetPosition.getRow()][targetPosition.getColumn()];
+            if (promoted != null && promoted.getColor() == color && !(promoted instanceof Pawn))
+                return Bitboard.typeOf(Bitboard.pieceCode(promoted));
         }
-        return false;
+        return Bitboard.QUEEN;
     }
 
     public void promotePawn(Position position, Piece promotedPiece, Piece[][] board) {
         board[position.getRow()][position.getColumn()] = promotedPiece;
     }
 
+    /**
+     * Returns the king of {@code color} on {@code board}. For the view {@link #getBoard()} returns
+     * of the current position the king is read from the position's tracked king square; any other
+     * board is scanned.
+     */
     public King getKing(Piece[][] board, Color color) {
+        int king = this.position.kingSquare(color.ordinal());
+        if (king != Bitboard.NO_SQUARE && this.position.isCurrentView(board)) {
+            return (King) board[Bitboard.row(king)][Bitboard.column(king)];
+        }
+
         for (int i = 0; i < BOARD_DIMENSIONS; i++) {
             for (int j = 0; j < BOARD_DIMENSIONS; j++) {
                 Piece piece = board[i][j];
@@ -0,0 +1,214 @@
+package chess.game;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <p>
+ * A FEN string holds six space-separated fields: the pieces row by row from row 0 (rank 8), the
+ * side to move, the castling rights, the en passant square, the halfmove clock and the fullmove
+ * number. The last two are optional when reading and default to 0 and 1.
+ * </p>
+ * <p>
+ * Castling rights whose king or rook is not on its starting square are dropped when reading,
+ * since the move generator assumes both are there. The {@code Piece[][]} view of a parsed position
+ * carries matching {@link King#hasMoved()}, {@link Rook#hasMoved()} and
+ * {@link Pawn#getEnPassantTurn()} values, as {@link Bitboard#toPieces()} derives them from the
+ * castling rights and en passant square.
+ * </p>
+ * <p>
+ * Positions that no game can reach, and that the move generator and material signature are not
+ * built for, are rejected:
+ * </p>
+ * <ul>
+ *   <li>each side must have exactly one king and at most 16 pieces;</li>
+ *   <li>each side may have at most 8 pawns, and no more pieces beyond its starting set than it has
+ *   pawns missing, as each of those must be a promoted pawn;</li>
+ *   <li>the side not to move must not be in check;</li>
+ *   <li>an en passant square needs the pawn that passed over it in front of it, with the square
+ *   itself and the one the pawn came from empty.</li>
+ * </ul>
+ */
+public final class Fen {
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "RNBQKP";
+    private static final String CASTLING_LETTERS = "KQkq";
+    private static final int BOARD_DIMENSIONS = 8;
+    private static final int MAX_PIECES = 16;
+    private static final int MAX_PAWNS = 8;
+
+    /** Pieces of each type a side starts with, indexed like PIECE_LETTERS */
+    private static final int[] START_COUNTS = {2, 2, 2, 1, 1, 8};
+
+    /*
+     * King and rook squares each castling right needs, in the order of CASTLING_LETTERS
+     */
+    private static final int[] CASTLING_KINGS = {
+        Bitboard.WHITE_KING_HOME, Bitboard.WHITE_KING_HOME, Bitboard.BLACK_KING_HOME, Bitboard.BLACK_KING_HOME
+    };
+    private static final int[] CASTLING_ROOKS = {
+        Bitboard.WHITE_KINGSIDE_ROOK, Bitboard.WHITE_QUEENSIDE_ROOK,
+        Bitboard.BLACK_KINGSIDE_ROOK, Bitboard.BLACK_QUEENSIDE_ROOK
+    };
+
+    private Fen() {}
+
+    /**
+     * Builds a position from a FEN string.
+     *
+     * @param fen the FEN string, e.g. {@link #STARTING_POSITION}
+     * @return the described position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static Bitboard parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6)
+            throw new IllegalArgumentException("Invalid FEN, expected 4 to 6 fields: " + fen);
+
+        Bitboard position = new Bitboard();
+        parsePieces(fields[0], position);
+
+        int sideToMove;
+        if (fields[1].equals("w")) sideToMove = Bitboard.WHITE;
+        else if (fields[1].equals("b")) sideToMove = Bitboard.BLACK;
+        else throw new IllegalArgumentException("Invalid FEN side to move: " + fields[1]);
+
+        int castlingRights = parseCastlingRights(fields[2], position);
+        int enPassantSquare = parseEnPassantSquare(fields[3], sideToMove, position);
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        try {
+            if (fields.length > 4) halfmoveClock = Integer.parseInt(fields[4]);
+            if (fields.length > 5) fullmoveNumber = Integer.parseInt(fields[5]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid FEN move counters: " + fen, e);
+        }
+        if (halfmoveClock < 0 || fullmoveNumber < 1)
+            throw new IllegalArgumentException("Invalid FEN move counters: " + fen);
+
+        position.setState(sideToMove, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber);
+        if (position.isInCheck(sideToMove ^ 1))
+            throw new IllegalArgumentException("Invalid FEN, the side not to move is in check: " + fen);
+        return position;
+    }
+
+    private static void parsePieces(String placement, Bitboard position) {
+        String[] rows = placement.split("/", -1);
+        if (rows.length != BOARD_DIMENSIONS) throw new IllegalArgumentException("Invalid FEN, expected 8 rows: " + placement);
+
+        for (int r = 0; r < BOARD_DIMENSIONS; r++) {
+            int c = 0;
+            for (char ch : rows[r].toCharArray()) {
+                if (ch >= '1' && ch <= '8') {
+                    c += ch - '0';
+                } else {
+                    int type = PIECE_LETTERS.indexOf(Character.toUpperCase(ch));
+                    if (type < 0 || c >= BOARD_DIMENSIONS)
+                        throw new IllegalArgumentException("Invalid FEN piece placement: " + placement);
+                    if (type == Bitboard.PAWN && (r == 0 || r == BOARD_DIMENSIONS - 1))
+                        throw new IllegalArgumentException("Invalid FEN, pawn on the first or last rank: " + placement);
+                    position.setPiece(Bitboard.square(r, c++), Bitboard.pieceCode(Character.isUpperCase(ch) ? Bitboard.WHITE : Bitboard.BLACK, type));
+                }
+            }
+            if (c != BOARD_DIMENSIONS) throw new IllegalArgumentException("Invalid FEN row: " + rows[r]);
+        }
+
+        for (int side = Bitboard.WHITE; side <= Bitboard.BLACK; side++) {
+            if (Long.bitCount(position.getPieces(side, Bitboard.KING)) != 1)
+                throw new IllegalArgumentException("Invalid FEN, each side needs exactly one king: " + placement);
+            if (Long.bitCount(position.getOccupancy(side)) > MAX_PIECES)
+                throw new IllegalArgumentException("Invalid FEN, more than 16 pieces of one side: " + placement);
+
+            // Every piece beyond the starting set must be a promoted pawn
+            int pawns = Long.bitCount(position.getPieces(side, Bitboard.PAWN));
+            int promoted = 0;
+            for (int type = 0; type < START_COUNTS.length; type++) {
+                promoted += Math.max(0, Long.bitCount(position.getPieces(side, type)) - START_COUNTS[type]);
+            }
+            if (pawns > MAX_PAWNS || promoted > MAX_PAWNS - pawns)
+                throw new IllegalArgumentException("Invalid FEN, more pieces than pawns could have promoted to: " + placement);
+        }
+    }
+
+    private static int parseCastlingRights(String field, Bitboard position) {
+        if (field.equals("-")) return 0;
+
+        int rights = 0;
+        int seen = 0;
+        for (char ch : field.toCharArray()) {
+            int right = CASTLING_LETTERS.indexOf(ch);
+            if (right < 0 || (seen & (1 << right)) != 0)
+                throw new IllegalArgumentException("Invalid FEN castling rights: " + field);
+            seen |= 1 << right;
+
+            int side = (right < 2) ? Bitboard.WHITE : Bitboard.BLACK;
+            if (position.pieceAt(CASTLING_KINGS[right]) == Bitboard.pieceCode(side, Bitboard.KING)
+                && position.pieceAt(CASTLING_ROOKS[right]) == Bitboard.pieceCode(side, Bitboard.ROOK))
+                rights |= 1 << right;
+        }
+        return rights;
+    }
+
+    private static int parseEnPassantSquare(String field, int sideToMove, Bitboard position) {
+        if (field.equals("-")) return Bitboard.NO_SQUARE;
+
+        int square;
+        try {
+            square = Bitboard.square(Position.stringToPosition(field));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid FEN en passant square: " + field, e);
+        }
+
+        // The square a pawn of the side that just moved passed over
+        int row = (sideToMove == Bitboard.WHITE) ? 2 : 5;
+        if (Bitboard.row(square) != row) throw new IllegalArgumentException("Invalid FEN en passant square: " + field);
+
+        // The pawn stands one row further on, and the square it came from is one row back
+        int forward = (sideToMove == Bitboard.WHITE) ? 8 : -8;
+        if (position.pieceAt(square + forward) != Bitboard.pieceCode(sideToMove ^ 1, Bitboard.PAWN)
+            || position.pieceAt(square) != Bitboard.EMPTY || position.pieceAt(square - forward) != Bitboard.EMPTY)
+            throw new IllegalArgumentException("Invalid FEN en passant square, no pawn just passed over it: " + field);
+        return square;
+    }
+
+    /**
+     * Writes a position as a FEN string.
+     *
+     * @param position the position to write
+     * @return the FEN string
+     */
+    public static String toFen(Bitboard position) {
+        StringBuilder builder = new StringBuilder(90);
+        for (int r = 0; r < BOARD_DIMENSIONS; r++) {
+            if (r > 0) builder.append('/');
+            int empty = 0;
+            for (int c = 0; c < BOARD_DIMENSIONS; c++) {
+                int piece = position.pieceAt(Bitboard.square(r, c));
+                if (piece == Bitboard.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) builder.append(empty);
+                empty = 0;
+                char letter = PIECE_LETTERS.charAt(Bitboard.typeOf(piece));
+                builder.append((Bitboard.sideOf(piece) == Bitboard.WHITE) ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0) builder.append(empty);
+        }
+
+        builder.append(' ').append((position.getSideToMove() == Bitboard.WHITE) ? 'w' : 'b').append(' ');
+
+        int rights = position.getCastlingRights();
+        if (rights == 0) builder.append('-');
+        for (int right = 0; right < CASTLING_LETTERS.length(); right++) {
+            if ((rights & (1 << right)) != 0) builder.append(CASTLING_LETTERS.charAt(right));
+        }
+
+        int enPassant = position.getEnPassantSquare();
+        builder.append(' ').append((enPassant == Bitboard.NO_SQUARE) ? "-" : Bitboard.squareName(enPassant));
+        builder.append(' ').append(position.getHalfmoveClock());
+        builder.append(' ').append(position.getFullmoveNumber());
+        return builder.toString();
+    }
+}
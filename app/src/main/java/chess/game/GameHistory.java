@@ -0,0 +1,140 @@
+package chess.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The moves of a game as an append-only log, from which any earlier position can be rebuilt.
+ * <p>
+ * Each ply is stored as its {@link Move}-encoded move and the {@link UndoRecord} returned when it
+ * was played, twelve bytes in all, instead of a copy of the board. A copy of the position is also
+ * kept every {@link #SNAPSHOT_INTERVAL} plies, so rebuilding a position replays at most that many
+ * moves from the nearest one.
+ * </p>
+ */
+public final class GameHistory {
+
+    /**
+     * Number of plies between two snapshots of the position.
+     */
+    static final int SNAPSHOT_INTERVAL = 64;
+
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private int[] moves = new int[DEFAULT_CAPACITY];
+    private long[] undos = new long[DEFAULT_CAPACITY];
+    private int size;
+    private final ArrayList<Bitboard> snapshots = new ArrayList<>();
+
+    /**
+     * Creates an empty history for a game starting from {@code start}.
+     *
+     * @param start the starting position, which is copied
+     */
+    public GameHistory(Bitboard start) {
+        this.snapshots.add(new Bitboard(start));
+    }
+
+    /**
+     * Plays {@code move} on {@code position} and appends it to the history. {@code position} must
+     * be the position after the last move in the history, and the move must be legal in it.
+     *
+     * @param position the current position, which is modified
+     * @param move the packed move
+     */
+    public void play(Bitboard position, int move) {
+        long undo = position.makeMove(move);
+        if (this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.size * 2);
+            this.undos = Arrays.copyOf(this.undos, this.size * 2);
+        }
+        this.moves[this.size] = move;
+        this.undos[this.size] = undo;
+        this.size++;
+
+        if (this.size % SNAPSHOT_INTERVAL == 0) this.snapshots.add(new Bitboard(position));
+    }
+
+    /**
+     * Takes back the last move on {@code position} and removes it from the history.
+     *
+     * @param position the current position, which is modified
+     * @return the move taken back
+     * @throws IllegalStateException if no move has been played
+     */
+    public int undo(Bitboard position) {
+        if (this.size == 0) throw new IllegalStateException("No move to take back.");
+
+        if (this.size % SNAPSHOT_INTERVAL == 0) this.snapshots.remove(this.snapshots.size() - 1);
+        this.size--;
+        position.unmakeMove(this.undos[this.size]);
+        return this.moves[this.size];
+    }
+
+    /**
+     * Rebuilds the position after {@code ply} moves, starting from the nearest snapshot at or
+     * before it.
+     *
+     * @param ply the number of moves played, from 0 for the starting position to {@link #size()}
+     * @return a new copy of the position
+     */
+    public Bitboard positionAt(int ply) {
+        if (ply < 0 || ply > this.size) throw new IndexOutOfBoundsException("Ply " + ply + " out of range 0.." + this.size);
+
+        Bitboard position = new Bitboard(this.snapshots.get(ply / SNAPSHOT_INTERVAL));
+        for (int i = ply - ply % SNAPSHOT_INTERVAL; i < ply; i++) position.makeMove(this.moves[i]);
+        return position;
+    }
+
+    /**
+     * Returns the starting position of the game. The returned position must not be modified.
+     */
+    public Bitboard getStart() {return this.snapshots.get(0);}
+
+    /**
+     * Returns the move played at {@code ply}, counting from 0.
+     */
+    public int getMove(int ply) {
+        if (ply < 0 || ply >= this.size) throw new IndexOutOfBoundsException("Ply " + ply + " out of range 0.." + (this.size - 1));
+        return this.moves[ply];
+    }
+
+    /**
+     * Returns the {@link UndoRecord} of the move played at {@code ply}, counting from 0.
+     */
+    public long getUndo(int ply) {
+        if (ply < 0 || ply >= this.size) throw new IndexOutOfBoundsException("Ply " + ply + " out of range 0.." + (this.size - 1));
+        return this.undos[ply];
+    }
+
+    /**
+     * Writes the moves in SAN by replaying them on a single copy of the starting position.
+     *
+     * @return one entry per ply, e.g. {@code [e4, e5, Nf3]}
+     */
+    public List<String> toSan() {
+        List<String> san = new ArrayList<>(this.size);
+        Bitboard position = new Bitboard(this.getStart());
+        for (int i = 0; i < this.size; i++) {
+            san.add(San.toSan(position, this.moves[i]));
+            position.makeMove(this.moves[i]);
+        }
+        return san;
+    }
+
+    /** Number of moves played. */
+    public int size() {return this.size;}
+
+    public boolean isEmpty() {return this.size == 0;}
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) builder.append(' ');
+            builder.append(Move.toString(this.moves[i]));
+        }
+        return builder.toString();
+    }
+}
@@ -7,6 +7,15 @@ public class King extends SlidingPieces {
 
     public static final int MAX_MOVES = 8;
 
+    /*
+     * Attacked squares for a king on each square, computed once so lookups never allocate
+     */
+    private static final long[] ATTACKS = new long[64];
+
+    static {
+        for (int square = 0; square < ATTACKS.length; square++) ATTACKS[square] = computeAttacks(square);
+    }
+
     public final Position[] CASTLE_POSITION = (this.isWhite()) 
         ? new Position[]{new Position(7, 2), new Position(7, 6)} : 
         new Position[]{new Position(0, 2), new Position(0, 6)};
@@ -18,6 +27,31 @@ public class King extends SlidingPieces {
         this.TITLE = Title.K;
     }
 
+    public boolean hasMoved() {
+        return this.hasMoved;
+    }
+
+    void setHasMoved(boolean hasMoved) {
+        this.hasMoved = hasMoved;
+    }
+
+    /**
+     * Returns the squares a king on {@code square} attacks as a {@link Bitboard} mask.
+     *
+     * @param square the king's square, numbered as in {@link Bitboard}
+     * @return a board of attacked squares
+     */
+    public static long attacks(int square) {
+        return ATTACKS[square];
+    }
+
+    private static long computeAttacks(int square) {
+        long b = 1L << square;
+        long sides = ((b << 1) & Bitboard.NOT_FILE_A) | ((b >>> 1) & Bitboard.NOT_FILE_H);
+        long row = b | sides;
+        return sides | (row << 8) | (row >>> 8);
+    }
+
     @Override
     public boolean isPseudoLegalMove(Position targetPosition, MoveContext mContext) {
         int r = this.position.getRow(),
@@ -35,22 +69,11 @@ public class King extends SlidingPieces {
             return false;
 
         // Check all around the king for another king
-        for (Direction dir : Direction.values()) {
-            int dr = newR + dir.getRowDelta();
-            int dc = newC + dir.getColDelta();
-
-            if (Position.isValidPosition(dr, dc)) {
-                Piece piece = board[dr][dc];
-                if (piece instanceof King && piece.getColor() != this.color) 
-                    return false;
-            }
-        }
+        if (isEnemyOn(board, attacks(Bitboard.square(newR, newC)), King.class, this.color)) return false;
 
         // Check if the move would put the king in check
-        King tempKing = new King(targetPosition, this.color);
         board[r][c] = null; // Temporarily remove the king from its current position
-        var mContext1 = new MoveContext(mContext.getTurnCount(), board);
-        boolean inCheck = tempKing.isInCheck(mContext1);
+        boolean inCheck = isSquareAttacked(board, newR, newC, this.color);
         board[r][c] = this; // Restore the king to its original position
         return !inCheck;
     }
@@ -81,8 +104,7 @@ public class King extends SlidingPieces {
                     }
                     // Check king does not pass through or end up in check
                     for (int c = kingCol; c != CASTLE_POSITION[i].getColumn() + dir; c += dir) {
-                        King tempKing = new King(new Position(row, c), this.color);
-                        if (tempKing.isInCheck(mContext)) return false;
+                        if (isSquareAttacked(board, row, c, this.color)) return false;
                     }
                     // Passed all checks and can castle
                     return true;
@@ -95,59 +117,49 @@ public class King extends SlidingPieces {
     }
 
     public boolean isInCheck(MoveContext mContext) {
+        return isSquareAttacked(mContext.getBoard(), this.position.getRow(), this.position.getColumn(), this.color);
+    }
 
-        int r = this.position.getRow();
-        int c = this.position.getColumn();
-
-        // Pawn direction to watch out for is fixed for color
-        int pawnDir = this.isWhite() ? -1 : 1;
-        int nextRow = r + pawnDir;
-
-        var board = mContext.getBoard();
-
-        // Check left and right columns
-        for (int dc : new int[]{-1, 1}) {
-            int nextCol = c + dc;
-            if (Position.isValidPosition(nextRow, nextCol)) {
-                // Check if piece there is opposite colored pawn
-                Piece piece = board[nextRow][nextCol];
-                if (piece != null && piece instanceof Pawn && piece.getColor() != this.color) {
-                    return true;
-               }
-            }
-        }
-
-        // All 8 possible horse positions
-        int[][] horsePositions = Knight.generateHorsePositions(r, c);
-
-        // Check every legal horse position for an oppsosite colroed knight
-        for (int[] hp : horsePositions) {
-            int newR = hp[0];
-            int newC = hp[1];
+    /**
+     * Checks whether a king of {@code color} standing on the given square would be attacked by an
+     * enemy pawn, knight or sliding piece. Every attacker is looked up in precomputed attack
+     * tables, so the test never allocates.
+     *
+     * @param board the board to test on
+     * @param r the row of the square
+     * @param c the column of the square
+     * @param color the color of the king
+     * @return {@code true} if the square is attacked; {@code false} otherwise
+     */
+    static boolean isSquareAttacked(Piece[][] board, int r, int c, Color color) {
+        int square = Bitboard.square(r, c);
+
+        // Enemy pawns attack from the squares a pawn of our own color would attack
+        if (isEnemyOn(board, Pawn.attacks(square, color.ordinal()), Pawn.class, color)) return true;
+
+        // Every square a horse jump away for an opposite colored knight
+        if (isEnemyOn(board, Knight.attacks(square), Knight.class, color)) return true;
+
+        // The first piece on each line, found through the magic tables, for queens/rooks/bishops
+        long lines = occupancy(board, rookAttacks(square, board));
+        if (isEnemyOn(board, lines, Rook.class, color) || isEnemyOn(board, lines, Queen.class, color)) return true;
+
+        long diagonals = occupancy(board, bishopAttacks(square, board));
+        if (isEnemyOn(board, diagonals, Bishop.class, color) || isEnemyOn(board, diagonals, Queen.class, color))
+            return true;
 
-            if (Position.isValidPosition(newR, newC)) {
-                if (board[newR][newC] != null && board[newR][newC] instanceof Knight 
-                    && board[newR][newC].getColor() != this.color) 
-                        return true;
-            }
-        }
+        // Cleared all possible threats 
+        return false;
+    }
 
-        // Check each individual line for either queens/rooks/bishops
-        for (Direction dir : Direction.values()) {
-            int dr = dir.getRowDelta();
-            int dc = dir.getColDelta();
+    private static boolean isEnemyOn(Piece[][] board, long squares, Class<? extends Piece> type, Color color) {
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
 
-            if (this.processLine(dr, dc, board, false, (row, column, piece) -> {
-                    if (piece != null && piece.getColor() != this.color) {
-                        if (piece instanceof Queen) return true;
-                        else if ((dr == 0 || dc == 0) && piece instanceof Rook) return true;
-                        else if ((dr != 0 && dc != 0) && piece instanceof Bishop) return true;
-                    }
-                    return false;
-            })) return true;
+            Piece piece = board[Bitboard.row(square)][Bitboard.column(square)];
+            if (type.isInstance(piece) && piece.getColor() != color) return true;
         }
-
-        // Cleared all possible threats 
         return false;
     }
 
@@ -171,17 +183,13 @@ public class King extends SlidingPieces {
         Set<Position> moves = new HashSet<>();
         // var board = mContext.getBoard();
 
-        int r = this.position.getRow();
-        int c = this.position.getColumn();
         // Check all around the king for another piece
-        for (Direction dir : Direction.values()) {
-            int newR = r + dir.getRowDelta();
-            int newC = c + dir.getColDelta();
+        long targets = attacks(Bitboard.square(this.position));
+        while (targets != 0) {
+            Position target = Bitboard.toPosition(Long.numberOfTrailingZeros(targets));
+            targets &= targets - 1;
 
-            if (Position.isValidPosition(newR, newC) && 
-                this.isPseudoLegalMove(new Position(newR, newC), mContext)) {
-                    moves.add(new Position(newR, newC));
-            }
+            if (this.isPseudoLegalMove(target, mContext)) moves.add(target);
         }
 
         for (Position pos : CASTLE_POSITION) {
@@ -11,6 +11,15 @@ import java.util.Set;
 public class Knight extends PieceBehaviors {
 
     public static final int MAX_MOVES = 8;
+
+    /*
+     * Attacked squares for a knight on each square, computed once so lookups never allocate
+     */
+    private static final long[] ATTACKS = new long[64];
+
+    static {
+        for (int square = 0; square < ATTACKS.length; square++) ATTACKS[square] = computeAttacks(square);
+    }
     // public static final Title TITLE = Title.N;
 
     /**
@@ -59,13 +68,16 @@ public class Knight extends PieceBehaviors {
     @Override
     public Set<Position> generatePseudoLegalMoves(MoveContext mContext) {
         Set<Position> moves = new HashSet<>(MAX_MOVES);
+        var board = mContext.getBoard();
+
+        long targets = attacks(Bitboard.square(this.position));
+        while (targets != 0) {
+            int square = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
 
-        for (int[] arr : generateHorsePositions(this.position.getRow(), this.position.getColumn())) {
-            int row = arr[0];
-            int column = arr[1];
-            if (Position.isValidPosition(row, column) && (mContext.getBoard()[row][column] == null 
-                || !this.isPositionPieceSameColor(mContext.getBoard(), row, column))) 
-                moves.add(new Position(row, column)); 
+            int row = Bitboard.row(square);
+            int column = Bitboard.column(square);
+            if (!this.isPositionPieceSameColor(board, row, column)) moves.add(new Position(row, column));
         }
 
         return moves;
@@ -86,6 +98,24 @@ public class Knight extends PieceBehaviors {
         };
      }
 
+    /**
+     * Returns the squares a knight on {@code square} attacks as a {@link Bitboard} mask.
+     *
+     * @param square the knight's square, numbered as in {@link Bitboard}
+     * @return a board of attacked squares
+     */
+    public static long attacks(int square) {
+        return ATTACKS[square];
+    }
+
+    private static long computeAttacks(int square) {
+        long b = 1L << square;
+        return ((b << 17) & Bitboard.NOT_FILE_A) | ((b << 15) & Bitboard.NOT_FILE_H)
+            | ((b >>> 15) & Bitboard.NOT_FILE_A) | ((b >>> 17) & Bitboard.NOT_FILE_H)
+            | ((b << 10) & Bitboard.NOT_FILE_AB) | ((b << 6) & Bitboard.NOT_FILE_GH)
+            | ((b >>> 6) & Bitboard.NOT_FILE_AB) | ((b >>> 10) & Bitboard.NOT_FILE_GH);
+    }
+
     @Override
     public Object clone() throws CloneNotSupportedException {
         return new Knight(this.getPosition(), this.getColor());
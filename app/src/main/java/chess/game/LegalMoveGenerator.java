@@ -0,0 +1,298 @@
+package chess.game;
+
+/**
+ * Generates legal moves for the side to move of a {@link Bitboard} position directly, without
+ * playing pseudo-legal moves to look for self-check.
+ * <p>
+ * The pieces giving check and the pieces pinned to their king are worked out once, when the
+ * generator is created. After that:
+ * </p>
+ * <ul>
+ *   <li>in double check only the king may move;</li>
+ *   <li>in single check other pieces must capture the checker or block the line it checks along;</li>
+ *   <li>a pinned piece may only move along the line through its king and the pinner;</li>
+ *   <li>the king may only move to squares not attacked once it has left its own square.</li>
+ * </ul>
+ * <p>
+ * En passant captures, which remove a second piece from the board, are still checked by playing
+ * them out on occupancy masks. A generator describes the position as it was when it was created,
+ * so a new one is needed after every move.
+ * </p>
+ */
+public final class LegalMoveGenerator {
+
+    /*
+     * Squares strictly between two squares on a shared line, and the whole line through them
+     */
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final int[] PROMOTIONS = {Bitboard.QUEEN, Bitboard.ROOK, Bitboard.BISHOP, Bitboard.KNIGHT};
+
+    static {
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) continue;
+                long bBit = 1L << b;
+                if ((Magics.rookAttacks(a, 0L) & bBit) != 0) {
+                    BETWEEN[a][b] = Magics.rookAttacks(a, bBit) & Magics.rookAttacks(b, 1L << a);
+                    LINE[a][b] = (Magics.rookAttacks(a, 0L) & Magics.rookAttacks(b, 0L)) | (1L << a) | bBit;
+                } else if ((Magics.bishopAttacks(a, 0L) & bBit) != 0) {
+                    BETWEEN[a][b] = Magics.bishopAttacks(a, bBit) & Magics.bishopAttacks(b, 1L << a);
+                    LINE[a][b] = (Magics.bishopAttacks(a, 0L) & Magics.bishopAttacks(b, 0L)) | (1L << a) | bBit;
+                }
+            }
+        }
+    }
+
+    private final Bitboard position;
+    private final int side;
+    private final int king;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+
+    /**
+     * Works out the checkers and pinned pieces of the side to move.
+     *
+     * @param position the position to generate moves in
+     */
+    public LegalMoveGenerator(Bitboard position) {
+        this.position = position;
+        this.side = position.getSideToMove();
+        this.king = position.kingSquare(this.side);
+
+        if (this.king == Bitboard.NO_SQUARE) {
+            this.checkers = 0L;
+            this.checkMask = -1L;
+            this.pinned = 0L;
+            return;
+        }
+
+        int enemy = this.side ^ 1;
+        long occupied = position.getOccupied();
+        this.checkers = position.attackersTo(this.king, enemy, occupied);
+
+        if (this.checkers == 0) this.checkMask = -1L;
+        else if (Long.bitCount(this.checkers) == 1)
+            this.checkMask = this.checkers | BETWEEN[this.king][Long.numberOfTrailingZeros(this.checkers)];
+        else this.checkMask = 0L;
+
+        // Enemy sliders that would see the king on an empty board pin the only piece in between
+        long queens = position.getPieces(enemy, Bitboard.QUEEN);
+        long snipers = (Magics.rookAttacks(this.king, 0L) & (position.getPieces(enemy, Bitboard.ROOK) | queens))
+            | (Magics.bishopAttacks(this.king, 0L) & (position.getPieces(enemy, Bitboard.BISHOP) | queens));
+        long own = position.getOccupancy(this.side);
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+
+            long blockers = BETWEEN[this.king][sniper] & occupied;
+            if (Long.bitCount(blockers) == 1) pinned |= blockers & own;
+        }
+        this.pinned = pinned;
+    }
+
+    /**
+     * Returns the squares strictly between {@code a} and {@code b}, or an empty board when they do
+     * not share a rank, file or diagonal.
+     */
+    public static long between(int a, int b) {return BETWEEN[a][b];}
+
+    /**
+     * Returns the whole rank, file or diagonal through {@code a} and {@code b}, or an empty board
+     * when they do not share one.
+     */
+    public static long line(int a, int b) {return LINE[a][b];}
+
+    /** Enemy pieces giving check to the side to move. */
+    public long getCheckers() {return this.checkers;}
+
+    /** Pieces of the side to move that are pinned to their king. */
+    public long getPinned() {return this.pinned;}
+
+    public boolean isInCheck() {return this.checkers != 0;}
+
+    /**
+     * Returns the legal destination squares of the piece on {@code from}, or an empty board if it
+     * is not a piece of the side to move.
+     *
+     * @param from the square of the piece to move
+     * @return a board of legal target squares
+     */
+    public long legalTargets(int from) {
+        int piece = this.position.pieceAt(from);
+        if (piece == Bitboard.EMPTY || Bitboard.sideOf(piece) != this.side) return 0L;
+
+        long targets = this.position.pseudoLegalTargets(from);
+        int type = Bitboard.typeOf(piece);
+        if (type == Bitboard.KING) return this.kingTargets(from, targets);
+
+        long legal = targets & this.checkMask;
+        if ((this.pinned & (1L << from)) != 0) legal &= LINE[this.king][from];
+
+        int enPassant = this.position.getEnPassantSquare();
+        if (type == Bitboard.PAWN && enPassant != Bitboard.NO_SQUARE && (targets & (1L << enPassant)) != 0) {
+            // Removes a pawn that is not on the target square, so neither mask describes it
+            legal &= ~(1L << enPassant);
+            if (this.checkMask != 0 && MoveValidator.isKingSafeAfter(this.position, from, enPassant))
+                legal |= 1L << enPassant;
+        }
+        return legal;
+    }
+
+    /**
+     * The king must not stay on a line it is checked along, so it is taken off the board before
+     * testing where it may go. Castling squares were already checked for attacks when generated.
+     */
+    private long kingTargets(int from, long targets) {
+        int enemy = this.side ^ 1;
+        long occupied = this.position.getOccupied() & ~(1L << from);
+        long legal = 0L;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (this.position.attackersTo(to, enemy, occupied) == 0) legal |= 1L << to;
+        }
+        return legal;
+    }
+
+    /**
+     * Appends every legal move of the side to move to {@code moves}, with one move per promotion
+     * piece for pawns reaching the last row.
+     *
+     * @param moves the list to append to
+     */
+    public void generate(MoveList moves) {
+        long own = this.position.getOccupancy(this.side);
+        if (this.checkMask == 0 && this.king != Bitboard.NO_SQUARE) own = 1L << this.king;
+
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+
+            long targets = this.legalTargets(from);
+            boolean promotes = this.isPromotingPawn(from);
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+
+                if (!promotes) moves.add(Move.of(this.position, from, to, Bitboard.EMPTY));
+                else for (int promotion : PROMOTIONS) moves.add(Move.of(this.position, from, to, promotion));
+            }
+        }
+    }
+
+    /**
+     * Appends the legal captures and promotions of the side to move to {@code moves}, as searched
+     * by a quiescence search. Pawns reaching the last row only promote to a queen.
+     *
+     * @param moves the list to append to
+     */
+    public void generateCaptures(MoveList moves) {
+        long own = this.position.getOccupancy(this.side);
+        if (this.checkMask == 0 && this.king != Bitboard.NO_SQUARE) own = 1L << this.king;
+        long enemy = this.position.getOccupancy(this.side ^ 1);
+        int enPassant = this.position.getEnPassantSquare();
+        long enPassantTarget = (enPassant == Bitboard.NO_SQUARE) ? 0L : 1L << enPassant;
+
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+
+            boolean promotes = this.isPromotingPawn(from);
+            long targets = this.legalTargets(from);
+            if (!promotes) {
+                boolean pawn = Bitboard.typeOf(this.position.pieceAt(from)) == Bitboard.PAWN;
+                targets &= pawn ? enemy | enPassantTarget : enemy;
+            }
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                moves.add(Move.of(this.position, from, to, promotes ? Bitboard.QUEEN : Bitboard.EMPTY));
+            }
+        }
+    }
+
+    /**
+     * Appends the legal moves {@link #generateCaptures} leaves out to {@code moves}: quiet moves,
+     * castling, and promotions to a rook, bishop or knight. Together the two give the same moves
+     * as {@link #generate}.
+     *
+     * @param moves the list to append to
+     */
+    public void generateQuiets(MoveList moves) {
+        long own = this.position.getOccupancy(this.side);
+        if (this.checkMask == 0 && this.king != Bitboard.NO_SQUARE) own = 1L << this.king;
+        long enemy = this.position.getOccupancy(this.side ^ 1);
+        int enPassant = this.position.getEnPassantSquare();
+        long enPassantTarget = (enPassant == Bitboard.NO_SQUARE) ? 0L : 1L << enPassant;
+
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+
+            boolean promotes = this.isPromotingPawn(from);
+            long targets = this.legalTargets(from);
+            if (!promotes) {
+                boolean pawn = Bitboard.typeOf(this.position.pieceAt(from)) == Bitboard.PAWN;
+                targets &= ~(pawn ? enemy | enPassantTarget : enemy);
+            }
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+
+                if (!promotes) {
+                    moves.add(Move.of(this.position, from, to, Bitboard.EMPTY));
+                } else {
+                    for (int promotion : PROMOTIONS) {
+                        if (promotion != Bitboard.QUEEN) moves.add(Move.of(this.position, from, to, promotion));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines if {@code move} is one of the moves {@link #generate} gives, such as a move kept
+     * from another position that may not be legal in this one.
+     *
+     * @param move a {@link Move}-encoded move
+     * @return {@code true} if the move is legal here
+     */
+    public boolean isLegal(int move) {
+        if (move == Move.NONE) return false;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if ((this.legalTargets(from) & (1L << to)) == 0) return false;
+        if (this.isPromotingPawn(from) != Move.isPromotion(move)) return false;
+        return move == Move.of(this.position, from, to, Move.promotion(move));
+    }
+
+    private boolean isPromotingPawn(int from) {
+        int piece = this.position.pieceAt(from);
+        if (Bitboard.typeOf(piece) != Bitboard.PAWN) return false;
+        return Bitboard.row(from) == ((this.side == Bitboard.WHITE) ? 1 : 6);
+    }
+
+    /**
+     * Determines if the side to move has at least one legal move.
+     *
+     * @return {@code true} if any legal move exists
+     */
+    public boolean hasLegalMove() {
+        if (this.king != Bitboard.NO_SQUARE) {
+            // Try the king first, it is the only piece that can answer a double check
+            if (this.legalTargets(this.king) != 0) return true;
+            if (this.checkMask == 0) return false;
+        }
+
+        // Walk the piece list rather than the board
+        for (int i = 0, n = this.position.getPieceCount(this.side); i < n; i++) {
+            int from = this.position.getPieceSquare(this.side, i);
+            if (from != this.king && this.legalTargets(from) != 0) return true;
+        }
+        return false;
+    }
+}
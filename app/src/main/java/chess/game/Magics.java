@@ -0,0 +1,196 @@
+package chess.game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import chess.game.PieceBehaviors.Direction;
+
+/**
+ * Magic bitboard lookup tables for rook and bishop attacks.
+ * <p>
+ * For each square, the occupied squares that can block a slider (its relevance mask) are
+ * multiplied by a magic number, and the top bits of the product index that square's slice of a
+ * shared attack table. An attack lookup is then a mask, a multiply, a shift and a load, whatever
+ * the board looks like.
+ * </p>
+ * <p>
+ * Squares are numbered as in {@link Bitboard}, with a8 as square 0, so the published magics for
+ * a1-first numbering do not apply. The magics below were found with the sparse random search in
+ * {@link #findMagic} for this numbering. When the class loads, every magic is checked against
+ * {@link SlidingPieces#slidingAttacks}, which stays the reference implementation, while the table is
+ * filled, and the search runs again for any square where a magic does not hold.
+ * </p>
+ */
+public final class Magics {
+
+    private static final long SEED = 0x3A61_C5EE_D0F0_0D5EL;
+    private static final int ROOK_TABLE_SIZE = 102_400;
+    private static final int BISHOP_TABLE_SIZE = 5_248;
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+        0x8080001020804003L, 0x0040400020001000L, 0x0100082001001040L, 0x2900061001000820L,
+        0x2080080004000280L, 0x2200019002000824L, 0x2080810002000080L, 0x4100005822008100L,
+        0x50C0800080400022L, 0x2021401000200148L, 0x8061001020004100L, 0x0C68800800100080L,
+        0x0001000802050010L, 0x8802001002000408L, 0x24A2000822008C41L, 0x0414801041000080L,
+        0x0824208004400480L, 0x00D0024001402002L, 0x0840220010408200L, 0x0000420010082200L,
+        0x0404028008008004L, 0x0920808004000200L, 0x1681040010088142L, 0x2140020004208041L,
+        0x0400800080204002L, 0x2000500040002000L, 0xC024208200120840L, 0x0A00200900100101L,
+        0x0400040080800800L, 0x0322040080020080L, 0x0A0C1104001802D0L, 0x80C0010200008054L,
+        0x4020004000808000L, 0xC000400081802000L, 0x0100402202001080L, 0x040CD80380801000L,
+        0x0000040801001100L, 0x1000800200800401L, 0x8048100104000882L, 0x00000A49020004A4L,
+        0x008001C2600A4000L, 0x4410002004424000L, 0x0400200041010011L, 0x8208100100210009L,
+        0x0128020004004040L, 0x4108040002008080L, 0x0800100201040008L, 0x2000011040A20004L,
+        0x126A010028408200L, 0x00C0804201002200L, 0x0220001000208080L, 0x0802000824401200L,
+        0x8013021088000500L, 0x0200020080040080L, 0x0030100208010400L, 0x24000044128B0200L,
+        0x000102800140102BL, 0x4006418921020012L, 0x1220041041200901L, 0x0042081000042101L,
+        0x2022000408A09002L, 0x0401000204000803L, 0x020A080201009004L, 0x0000010084092242L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_ATTACKS = new long[ROOK_TABLE_SIZE];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+        0x0302101009004281L, 0x4404280801202200L, 0x011822024A106000L, 0x1C11040880004920L,
+        0x0004042006400980L, 0x80020203A0040001L, 0x820C009844100040L, 0x1003208800882020L,
+        0x00A0400208214111L, 0x0001021094208081L, 0x0050100100490044L, 0x0400E44400804098L,
+        0x00C0040421050021L, 0x00200A0950280002L, 0x9CA5204808041041L, 0x0208120104A82491L,
+        0x6108024003040400L, 0x04A0090802808200L, 0x0210006054408021L, 0x1019081801410000L,
+        0x0052000400940060L, 0x0401008220A01001L, 0x2004022111280200L, 0x0000802040480808L,
+        0x0108040008200820L, 0x52444408200800B0L, 0x268048080C002401L, 0x1040040000410020L,
+        0x0203004553004000L, 0x0050012002441002L, 0x00040C0240820102L, 0x0004003092411402L,
+        0x0801054040200800L, 0x4001049080023000L, 0x0803280400880021L, 0x0000100820040400L,
+        0x0020018400008220L, 0x101011020000404AL, 0x0010010900004400L, 0x71410C0484102222L,
+        0x000C020804824100L, 0x008C208410010411L, 0x2010404250002040L, 0x8010082124000801L,
+        0x0110201200800C10L, 0x1840100040401380L, 0x084401021A00040AL, 0x020418820E007050L,
+        0x2041080804040110L, 0x0402008401084840L, 0x0000002402081080L, 0x0000010020880002L,
+        0x08402004A5040020L, 0x003A40A204110498L, 0x0410042808204000L, 0x400242240C008000L,
+        0x0402110088044000L, 0x0002088400821000L, 0x4002281108880402L, 0x040024510210440AL,
+        0x40609011C0104100L, 0xB01D004420046100L, 0x1400456002821200L, 0x0003321C01040100L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_ATTACKS = new long[BISHOP_TABLE_SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        initialize(SlidingPieces.ORTHOGONAL_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, ROOK_ATTACKS, random);
+        initialize(SlidingPieces.DIAGONAL_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, BISHOP_ATTACKS, random);
+    }
+
+    private Magics() {}
+
+    /**
+     * Returns the squares a rook on {@code square} attacks, up to and including the first occupied
+     * square in each direction.
+     *
+     * @param square the rook's square, numbered as in {@link Bitboard}
+     * @param occupied the occupied squares
+     * @return a board of attacked squares
+     */
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_ATTACKS[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * Returns the squares a bishop on {@code square} attacks, up to and including the first
+     * occupied square in each direction.
+     *
+     * @param square the bishop's square, numbered as in {@link Bitboard}
+     * @param occupied the occupied squares
+     * @return a board of attacked squares
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[square] + index];
+    }
+
+    /**
+     * Returns the squares whose occupancy can change a rook's attacks from {@code square}: its
+     * lines without the final square of each.
+     */
+    public static long rookMask(int square) {return ROOK_MASKS[square];}
+
+    /**
+     * Returns the squares whose occupancy can change a bishop's attacks from {@code square}: its
+     * diagonals without the final square of each.
+     */
+    public static long bishopMask(int square) {return BISHOP_MASKS[square];}
+
+    private static void initialize(Direction[] directions, long[] masks, long[] magics, int[] shifts,
+                                   int[] offsets, long[] table, SplittableRandom random) {
+        int offset = 0;
+        for (int square = 0; square < 64; square++) {
+            long mask = relevanceMask(square, directions);
+            int bits = Long.bitCount(mask);
+
+            // Every subset of the mask, with the attacks it produces
+            long[] occupancies = new long[1 << bits];
+            long[] attacks = new long[1 << bits];
+            long subset = 0L;
+            for (int i = 0; i < occupancies.length; i++) {
+                occupancies[i] = subset;
+                attacks[i] = SlidingPieces.slidingAttacks(square, subset, directions);
+                subset = (subset - mask) & mask;
+            }
+
+            masks[square] = mask;
+            shifts[square] = 64 - bits;
+            offsets[square] = offset;
+            if (!fill(magics[square], mask, occupancies, attacks, table, offset))
+                magics[square] = findMagic(mask, occupancies, attacks, table, offset, random);
+            offset += occupancies.length;
+        }
+    }
+
+    /**
+     * Walks each direction from {@code square}, leaving out the last square of each line since a
+     * piece there cannot block anything behind it.
+     */
+    private static long relevanceMask(int square, Direction[] directions) {
+        long mask = 0L;
+        for (Direction direction : directions) {
+            int r = Bitboard.row(square) + direction.getRowDelta();
+            int c = Bitboard.column(square) + direction.getColDelta();
+            while (Position.isValidPosition(r + direction.getRowDelta(), c + direction.getColDelta())) {
+                mask |= 1L << Bitboard.square(r, c);
+                r += direction.getRowDelta();
+                c += direction.getColDelta();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Tries sparse random numbers until one maps every occupancy to a table slot holding either
+     * nothing or the same attacks, and leaves the square's slice of {@code table} filled with it.
+     */
+    private static long findMagic(long mask, long[] occupancies, long[] attacks, long[] table, int offset,
+                                  SplittableRandom random) {
+        while (true) {
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            // Magics that spread too few mask bits into the index rarely work
+            if (Long.bitCount((mask * magic) & 0xFF00_0000_0000_0000L) < 6) continue;
+            if (fill(magic, mask, occupancies, attacks, table, offset)) return magic;
+        }
+    }
+
+    /**
+     * Fills the square's slice of {@code table} through {@code magic}, and reports whether two
+     * occupancies with different attacks collided on one slot.
+     */
+    private static boolean fill(long magic, long mask, long[] occupancies, long[] attacks, long[] table, int offset) {
+        int shift = 64 - Long.bitCount(mask);
+
+        // Attack sets are never empty, so an empty slot is marked by zero
+        Arrays.fill(table, offset, offset + occupancies.length, 0L);
+        for (int i = 0; i < occupancies.length; i++) {
+            int index = offset + (int) ((occupancies[i] * magic) >>> shift);
+            if (table[index] == 0L) table[index] = attacks[i];
+            else if (table[index] != attacks[i]) return false;
+        }
+        return true;
+    }
+}
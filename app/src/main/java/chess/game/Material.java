@@ -0,0 +1,116 @@
+package chess.game;
+
+/**
+ * Reads material signatures, which {@link Bitboard} keeps up to date as pieces are put on and
+ * taken off the board.
+ * <p>
+ * A signature packs the number of pieces of each piece code into four bits each, in piece code
+ * order, followed by four bits per side counting that side's bishops on light squares. Two
+ * positions with the same pieces share a signature wherever the pieces stand, so it can key
+ * endgame-specific evaluation as well as answering whether mate is still possible.
+ * </p>
+ */
+public final class Material {
+
+    private static final int COUNT_BITS = 4;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int LIGHT_BISHOP_SHIFT = Bitboard.PIECE_CODES * COUNT_BITS;
+
+    /*
+     * Any rook, queen or pawn leaves mate possible, and so does a knight alongside another minor piece
+     */
+    private static final long MAJOR_OR_PAWN = mask(Bitboard.ROOK) | mask(Bitboard.QUEEN) | mask(Bitboard.PAWN);
+    private static final long KNIGHTS = mask(Bitboard.KNIGHT);
+    private static final int[] DISPLAY_ORDER = {Bitboard.KING, Bitboard.QUEEN, Bitboard.ROOK, Bitboard.BISHOP, Bitboard.KNIGHT, Bitboard.PAWN};
+
+    private Material() {}
+
+    private static long mask(int type) {
+        return (COUNT_MASK << (Bitboard.pieceCode(Bitboard.WHITE, type) * COUNT_BITS))
+            | (COUNT_MASK << (Bitboard.pieceCode(Bitboard.BLACK, type) * COUNT_BITS));
+    }
+
+    /**
+     * Returns the signature change for putting {@code piece} on {@code square}. Taking it off again
+     * subtracts the same amount.
+     *
+     * @param piece the piece code
+     * @param square the square, numbered as in {@link Bitboard}
+     * @return the amount to add to a signature
+     */
+    static long delta(int piece, int square) {
+        long delta = 1L << (piece * COUNT_BITS);
+        if (Bitboard.typeOf(piece) == Bitboard.BISHOP && isLightSquare(square))
+            delta += 1L << (LIGHT_BISHOP_SHIFT + Bitboard.sideOf(piece) * COUNT_BITS);
+        return delta;
+    }
+
+    /**
+     * Determines if {@code square} is a light square. The corner squares a8 and h1 are light.
+     */
+    public static boolean isLightSquare(int square) {
+        return ((Bitboard.row(square) + Bitboard.column(square)) & 1) == 0;
+    }
+
+    /**
+     * Returns how many pieces with code {@code piece} the signature holds.
+     */
+    public static int count(long signature, int piece) {
+        return (int) ((signature >>> (piece * COUNT_BITS)) & COUNT_MASK);
+    }
+
+    /**
+     * Returns how many pieces of {@code type} and {@code side} the signature holds.
+     */
+    public static int count(long signature, int side, int type) {
+        return count(signature, Bitboard.pieceCode(side, type));
+    }
+
+    /**
+     * Returns how many bishops of {@code side} stand on light squares.
+     */
+    public static int lightSquareBishops(long signature, int side) {
+        return (int) ((signature >>> (LIGHT_BISHOP_SHIFT + side * COUNT_BITS)) & COUNT_MASK);
+    }
+
+    /**
+     * Returns how many bishops of {@code side} stand on dark squares.
+     */
+    public static int darkSquareBishops(long signature, int side) {
+        return count(signature, side, Bitboard.BISHOP) - lightSquareBishops(signature, side);
+    }
+
+    /**
+     * Determines if neither side has the material to checkmate by any series of legal moves: bare
+     * kings, a single knight or bishop, or any number of bishops that all stand on squares of one
+     * color.
+     *
+     * @param signature the material signature of the position
+     * @return {@code true} if the position is a dead draw
+     */
+    public static boolean isInsufficient(long signature) {
+        if ((signature & MAJOR_OR_PAWN) != 0) return false;
+
+        int knights = count(signature, Bitboard.WHITE, Bitboard.KNIGHT) + count(signature, Bitboard.BLACK, Bitboard.KNIGHT);
+        int bishops = count(signature, Bitboard.WHITE, Bitboard.BISHOP) + count(signature, Bitboard.BLACK, Bitboard.BISHOP);
+        if (knights + bishops <= 1) return true;
+        if ((signature & KNIGHTS) != 0) return false;
+
+        int lightBishops = lightSquareBishops(signature, Bitboard.WHITE) + lightSquareBishops(signature, Bitboard.BLACK);
+        return lightBishops == 0 || lightBishops == bishops;
+    }
+
+    /**
+     * Returns a readable form of the signature, such as {@code KRPPvKR}.
+     */
+    public static String toString(long signature) {
+        StringBuilder builder = new StringBuilder();
+        for (int side = Bitboard.WHITE; side <= Bitboard.BLACK; side++) {
+            if (side == Bitboard.BLACK) builder.append('v');
+            for (int type : DISPLAY_ORDER) {
+                for (int i = count(signature, side, type); i > 0; i--) builder.append("RNBQKP".charAt(type));
+            }
+        }
+        return builder.toString();
+    }
+}
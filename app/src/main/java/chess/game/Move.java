@@ -0,0 +1,99 @@
+package chess.game;
+
+/**
+ * Packs a move into a single {@code int}, so move lists are plain {@code int[]} arrays and
+ * generating moves never boxes or allocates.
+ * <p>
+ * Layout, from the least significant bit:
+ * </p>
+ * <ul>
+ *   <li>bits 0-5: from square</li>
+ *   <li>bits 6-11: to square</li>
+ *   <li>bits 12-14: promotion piece type plus one, 0 when the move does not promote</li>
+ *   <li>bit 15: the move captures</li>
+ *   <li>bit 16: the move is an en passant capture</li>
+ *   <li>bit 17: the move is a castle</li>
+ * </ul>
+ * <p>
+ * Squares are numbered as in {@link Bitboard}. {@link #NONE} is never a real move, since no move
+ * starts and ends on a8.
+ * </p>
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLE = 1 << 17;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final String PROMOTION_LETTERS = "rnbq";
+
+    private Move() {}
+
+    /**
+     * Packs a move.
+     *
+     * @param from the from square
+     * @param to the to square
+     * @param promotion the piece type to promote to, or {@link Bitboard#EMPTY}
+     * @param flags any of {@link #CAPTURE}, {@link #EN_PASSANT} and {@link #CASTLE}
+     * @return the packed move
+     */
+    public static int encode(int from, int to, int promotion, int flags) {
+        return from | (to << TO_SHIFT) | ((promotion + 1) << PROMOTION_SHIFT) | flags;
+    }
+
+    /**
+     * Packs a move played in {@code position}, reading the capture, en passant and castle flags
+     * from the pieces on its squares.
+     *
+     * @param position the position the move is played in
+     * @param from the from square
+     * @param to the to square
+     * @param promotion the piece type to promote to, or {@link Bitboard#EMPTY}
+     * @return the packed move
+     */
+    public static int of(Bitboard position, int from, int to, int promotion) {
+        int type = Bitboard.typeOf(position.pieceAt(from));
+        int flags = 0;
+        if (position.pieceAt(to) != Bitboard.EMPTY) flags |= CAPTURE;
+        else if (type == Bitboard.PAWN && to == position.getEnPassantSquare()) flags |= CAPTURE | EN_PASSANT;
+        if (type == Bitboard.KING && Math.abs(to - from) == 2) flags |= CASTLE;
+        return encode(from, to, promotion, flags);
+    }
+
+    public static int from(int move) {return move & SQUARE_MASK;}
+
+    public static int to(int move) {return (move >>> TO_SHIFT) & SQUARE_MASK;}
+
+    /** Returns the piece type promoted to, or {@link Bitboard#EMPTY}. */
+    public static int promotion(int move) {return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) - 1;}
+
+    public static boolean isPromotion(int move) {return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;}
+
+    public static boolean isCapture(int move) {return (move & CAPTURE) != 0;}
+
+    public static boolean isEnPassant(int move) {return (move & EN_PASSANT) != 0;}
+
+    public static boolean isCastle(int move) {return (move & CASTLE) != 0;}
+
+    /**
+     * Returns a move in coordinate notation, e.g. {@code "e2e4"}, with a promotion letter appended
+     * when {@code promotion} is a piece type.
+     */
+    public static String name(int from, int to, int promotion) {
+        String name = Bitboard.squareName(from) + Bitboard.squareName(to);
+        if (promotion == Bitboard.EMPTY) return name;
+        return name + PROMOTION_LETTERS.charAt(promotion);
+    }
+
+    /**
+     * Returns a packed move in coordinate notation, e.g. {@code "e2e4"} or {@code "e7e8q"}.
+     */
+    public static String toString(int move) {return name(from(move), to(move), promotion(move));}
+}
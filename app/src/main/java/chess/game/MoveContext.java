@@ -4,7 +4,8 @@ public class MoveContext {
     private int turnCount;
     private Piece[][] board;
     private Piece lastMovedPiece;
-    private int turnsSinceLastPawnPush;
+    private int halfmoveClock;
+    private Bitboard position;
 
     public MoveContext(int turnCount, Piece[][] board, Piece lastMovedPiece) {
         this.turnCount = turnCount;
@@ -18,12 +19,56 @@ public class MoveContext {
         this.lastMovedPiece = null;
     }
 
+    /**
+     * Creates a context backed by a {@link Bitboard} position. The {@code Piece[][]} board is only
+     * derived from the position if {@link #getBoard()} is called.
+     *
+     * @param position the position to run on
+     */
+    public MoveContext(Bitboard position) {
+        this.turnCount = position.getFullmoveNumber();
+        this.halfmoveClock = position.getHalfmoveClock();
+        this.position = position;
+        this.lastMovedPiece = null;
+    }
+
     public void setLastMovedPiece(Piece lastMovedPiece) {
         this.lastMovedPiece = lastMovedPiece;
     }
 
     public int getTurnCount() { return turnCount; }
-    public Piece[][] getBoard() { return board; }
+
+    /**
+     * Returns the number of plies since the last capture or pawn move. A context backed by a
+     * position reads the position's clock, which {@link Bitboard#makeMove} keeps up to date.
+     */
+    public int getHalfmoveClock() {
+        return (position != null) ? position.getHalfmoveClock() : halfmoveClock;
+    }
+
+    /**
+     * Sets the halfmove clock of a context that only holds a {@code Piece[][]} board.
+     */
+    public void setHalfmoveClock(int halfmoveClock) {
+        if (halfmoveClock < 0) throw new IllegalArgumentException("Halfmove clock cannot be negative.");
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public Piece[][] getBoard() {
+        return (board == null && position != null) ? position.toPieces() : board;
+    }
+    public Bitboard getPosition() { return position; }
+
+    /**
+     * Returns the Zobrist key of the position backing this context.
+     *
+     * @return the 64-bit position key
+     * @throws IllegalStateException if the context only holds a {@code Piece[][]} board
+     */
+    public long getKey() {
+        if (position == null) throw new IllegalStateException("Context is not backed by a position.");
+        return position.getKey();
+    }
     public Piece getLastMovedPiece() { return lastMovedPiece; }
 
     public void setBoard(Piece[][] newBoard) {
@@ -0,0 +1,75 @@
+package chess.game;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of {@link Move}-encoded moves backed by an {@code int[]}.
+ * <p>
+ * Generators append into a list that the caller owns, so one list per search ply can be allocated
+ * up front and {@link #clear() cleared} for every node instead of building new collections.
+ * </p>
+ */
+public final class MoveList {
+
+    /**
+     * Enough room for the legal moves of any reachable position, the most known being 218.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (this.size == this.moves.length) this.moves = Arrays.copyOf(this.moves, this.size * 2 + 1);
+        this.moves[this.size++] = move;
+    }
+
+    /**
+     * Returns the move at {@code index}.
+     *
+     * @throws IndexOutOfBoundsException if {@code index} is not below {@link #size()}
+     */
+    public int get(int index) {
+        if (index >= this.size) throw new IndexOutOfBoundsException("Index " + index + " out of " + this.size);
+        return this.moves[index];
+    }
+
+    public void set(int index, int move) {
+        if (index >= this.size) throw new IndexOutOfBoundsException("Index " + index + " out of " + this.size);
+        this.moves[index] = move;
+    }
+
+    public int size() {return this.size;}
+
+    public boolean isEmpty() {return this.size == 0;}
+
+    public void clear() {this.size = 0;}
+
+    public boolean contains(int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) return true;
+        }
+        return false;
+    }
+
+    /** Returns a copy of the moves, in order. */
+    public int[] toArray() {return Arrays.copyOf(this.moves, this.size);}
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(Move.toString(this.moves[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
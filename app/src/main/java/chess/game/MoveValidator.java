@@ -12,35 +12,147 @@ public class MoveValidator {
             return true;
         }
 
-        // Simulate the move to check for self-check
-        var newBoard = simulateMove(mContext.getBoard(), piece, targetPosition);
-
-        for (int i = 0; i < newBoard.length; i++) {
-            for (int j = 0; j < newBoard[i].length; j++) {
-                Piece p = newBoard[i][j];
-                if (p != null && p.getColor() == piece.getColor() && p instanceof King
-                    && ((King) p).isInCheck(new MoveContext(mContext.getTurnCount(), newBoard))) {
-                    return false;
+        // Play the move on the board itself and take it back once the king has been looked at
+        var board = mContext.getBoard();
+        int r = piece.getPosition().getRow();
+        int c = piece.getPosition().getColumn();
+        Piece captured = makeMove(board, piece, targetPosition);
+
+        try {
+            for (int i = 0; i < board.length; i++) {
+                for (int j = 0; j < board[i].length; j++) {
+                    Piece p = board[i][j];
+                    if (p != null && p.getColor() == piece.getColor() && p instanceof King
+                        && ((King) p).isInCheck(mContext)) {
+                        return false;
+                    }
                 }
             }
+        } finally {
+            unmakeMove(board, piece, r, c, captured);
         }
 
         return true;
     }
 
-    public static Piece[][] simulateMove(Piece[][] board, Piece piece, Position targetPosition) {
-        // Clone the board
-        Piece[][] newBoard = cloneBoard(board);
-
-        // Move the piece
-        int r = piece.getPosition().getRow();
-        int c = piece.getPosition().getColumn();
+    /**
+     * Moves {@code piece} to {@code targetPosition} on {@code board} in place, without touching
+     * castling or en passant state.
+     *
+     * @param board the board to modify
+     * @param piece the piece to move
+     * @param targetPosition the destination of the piece
+     * @return the piece that was on {@code targetPosition}, or {@code null}
+     */
+    public static Piece makeMove(Piece[][] board, Piece piece, Position targetPosition) {
         int newR = targetPosition.getRow();
         int newC = targetPosition.getColumn();
-        newBoard[newR][newC] = newBoard[r][c];
-        newBoard[r][c] = null;
-        newBoard[newR][newC].getPosition().setPosition(targetPosition);
-        return newBoard;
+        Piece captured = board[newR][newC];
+
+        board[piece.getPosition().getRow()][piece.getPosition().getColumn()] = null;
+        board[newR][newC] = piece;
+        piece.getPosition().setPosition(newR, newC);
+        return captured;
+    }
+
+    /**
+     * Reverses {@link #makeMove(Piece[][], Piece, Position)}.
+     *
+     * @param board the board to restore
+     * @param piece the piece that was moved
+     * @param row the row the piece moved from
+     * @param column the column the piece moved from
+     * @param captured the piece returned by {@code makeMove}, or {@code null}
+     */
+    public static void unmakeMove(Piece[][] board, Piece piece, int row, int column, Piece captured) {
+        Position position = piece.getPosition();
+        board[position.getRow()][position.getColumn()] = captured;
+        board[row][column] = piece;
+        position.setPosition(row, column);
+    }
+
+    /**
+     * Validates a move on a {@link Bitboard} position: the move must be pseudo-legal for the piece
+     * on {@code from}, that piece must belong to the side to move, and the move must not leave its
+     * own king in check. No objects are allocated.
+     *
+     * @param position the position to validate against
+     * @param from the square of the piece to move
+     * @param to the destination square
+     * @return {@code true} if the move is legal
+     */
+    public static boolean validateMove(Bitboard position, int from, int to) {
+        int piece = position.pieceAt(from);
+        if (piece == Bitboard.EMPTY || Bitboard.sideOf(piece) != position.getSideToMove()) return false;
+        if ((position.pseudoLegalTargets(from) & (1L << to)) == 0) return false;
+        return isKingSafeAfter(position, from, to);
+    }
+
+    /**
+     * Validates a {@link Move}-encoded move on a {@link Bitboard} position. Only the squares are
+     * checked; the flags and promotion piece are ignored.
+     *
+     * @param position the position to validate against
+     * @param move the packed move
+     * @return {@code true} if the move is legal
+     */
+    public static boolean validateMove(Bitboard position, int move) {
+        return validateMove(position, Move.from(move), Move.to(move));
+    }
+
+    /**
+     * Appends every legal move of the side to move to {@code moves}.
+     *
+     * @param position the position to generate moves in
+     * @param moves the list to append to
+     */
+    public static void legalMoves(Bitboard position, MoveList moves) {
+        new LegalMoveGenerator(position).generate(moves);
+    }
+
+    /**
+     * Returns the legal destination squares of the piece on {@code from}. When generating for
+     * several pieces of one position, create a single {@link LegalMoveGenerator} instead.
+     *
+     * @param position the position to generate moves in
+     * @param from the square of the piece to move
+     * @return a board of legal target squares
+     */
+    public static long legalTargets(Bitboard position, int from) {
+        return new LegalMoveGenerator(position).legalTargets(from);
+    }
+
+    /**
+     * Determines if the side to move has at least one legal move.
+     *
+     * @param position the position to test
+     * @return {@code true} if any legal move exists
+     */
+    public static boolean hasLegalMove(Bitboard position) {
+        return new LegalMoveGenerator(position).hasLegalMove();
+    }
+
+    /**
+     * Checks a pseudo-legal move for self-check by updating the occupancy and the captured piece
+     * in local masks instead of on a copy of the board.
+     */
+    static boolean isKingSafeAfter(Bitboard position, int from, int to) {
+        int piece = position.pieceAt(from);
+        int side = Bitboard.sideOf(piece);
+        int enemy = side ^ 1;
+        long toBit = 1L << to;
+
+        long occupied = (position.getOccupied() & ~(1L << from)) | toBit;
+        long remaining = ~toBit;
+        if (Bitboard.typeOf(piece) == Bitboard.PAWN && to == position.getEnPassantSquare()) {
+            long capturedBit = 1L << (to + ((side == Bitboard.WHITE) ? 8 : -8));
+            occupied &= ~capturedBit;
+            remaining &= ~capturedBit;
+        }
+
+        int king = (Bitboard.typeOf(piece) == Bitboard.KING) ? to : position.kingSquare(side);
+        if (king == Bitboard.NO_SQUARE) return true;
+        return (position.attackersTo(king, enemy, occupied) & remaining) == 0;
     }
 
     public static Piece[][] cloneBoard(Piece[][] board) {
@@ -0,0 +1,185 @@
+package chess.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs {@link Perft} across all cores of a {@link ForkJoinPool}.
+ * <p>
+ * The root moves, and the replies to them when the search is deep enough, are split into
+ * {@link RecursiveTask} subtrees. Each subtree works on its own copy of the position, so threads
+ * share nothing but the pool, the counts they return and, when one is given, a lock-free
+ * {@link PerftCache}.
+ * </p>
+ */
+public final class ParallelPerft {
+
+    /**
+     * Searches at least this deep before replies to root moves are split into their own tasks too.
+     */
+    static final int SECOND_PLY_SPLIT_DEPTH = 5;
+
+    private ParallelPerft() {}
+
+    /**
+     * Counts the perft subtree below one position. Splits into one task per move while
+     * {@code splitPlies} is positive and counts sequentially below that.
+     */
+    static final class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Bitboard position;
+        private final int depth;
+        private final int splitPlies;
+        private final PerftCache cache;
+
+        PerftTask(Bitboard position, int depth, int splitPlies, PerftCache cache) {
+            this.position = position;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.splitPlies <= 0 || this.depth <= 1) return Perft.perft(this.position, this.depth, this.cache);
+
+            List<PerftTask> subtasks = new ArrayList<>();
+            MoveList moves = Perft.legalMoves(this.position);
+            for (int i = 0; i < moves.size(); i++) {
+                Bitboard child = new Bitboard(this.position);
+                child.makeMove(moves.get(i));
+                subtasks.add(new PerftTask(child, this.depth - 1, this.splitPlies - 1, this.cache));
+            }
+
+            long nodes = 0L;
+            for (PerftTask task : invokeAll(subtasks)) nodes += task.join();
+            return nodes;
+        }
+    }
+
+    /**
+     * Counts the leaf nodes below {@code position} on {@code pool}. The position is not modified.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search
+     * @param pool the pool to run on
+     * @return the number of leaf nodes
+     */
+    public static long perft(Bitboard position, int depth, ForkJoinPool pool) {
+        return perft(position, depth, pool, null);
+    }
+
+    /**
+     * Counts the leaf nodes below {@code position} on {@code pool}, with every task sharing
+     * {@code cache}. The position is not modified.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search
+     * @param pool the pool to run on
+     * @param cache the cache to share subtree counts through, or {@code null} for none
+     * @return the number of leaf nodes
+     */
+    public static long perft(Bitboard position, int depth, ForkJoinPool pool, PerftCache cache) {
+        int splitPlies = (depth >= SECOND_PLY_SPLIT_DEPTH) ? 2 : 1;
+        return pool.invoke(new PerftTask(new Bitboard(position), depth, splitPlies, cache));
+    }
+
+    /**
+     * Runs perft on {@code pool} and reports the node count below each root move.
+     *
+     * @param position the position to search from, which is not modified
+     * @param depth the number of plies to search, at least 1
+     * @param pool the pool to run on
+     * @return the per move counts, total nodes and timing
+     */
+    public static Perft.Result divide(Bitboard position, int depth, ForkJoinPool pool) {
+        return divide(position, depth, pool, null);
+    }
+
+    /**
+     * Runs perft on {@code pool} through {@code cache} and reports the node count below each root
+     * move.
+     *
+     * @param position the position to search from, which is not modified
+     * @param depth the number of plies to search, at least 1
+     * @param pool the pool to run on
+     * @param cache the cache to share subtree counts through, or {@code null} for none
+     * @return the per move counts, total nodes and timing
+     */
+    public static Perft.Result divide(Bitboard position, int depth, ForkJoinPool pool, PerftCache cache) {
+        if (depth < 1) throw new IllegalArgumentException("Depth must be at least 1.");
+
+        long start = System.nanoTime();
+        int splitPlies = (depth - 1 >= SECOND_PLY_SPLIT_DEPTH) ? 1 : 0;
+        MoveList rootMoves = Perft.legalMoves(position);
+        List<PerftTask> tasks = new ArrayList<>(rootMoves.size());
+        for (int i = 0; i < rootMoves.size(); i++) {
+            Bitboard child = new Bitboard(position);
+            child.makeMove(rootMoves.get(i));
+            tasks.add(new PerftTask(child, depth - 1, splitPlies, cache));
+        }
+
+        List<String> moves = new ArrayList<>(rootMoves.size());
+        List<Long> counts = new ArrayList<>(rootMoves.size());
+        long total = 0L;
+        for (PerftTask task : tasks) pool.execute(task);
+        for (int i = 0; i < tasks.size(); i++) {
+            long count = tasks.get(i).join();
+            moves.add(Move.toString(rootMoves.get(i)));
+            counts.add(count);
+            total += count;
+        }
+
+        return new Perft.Result(depth, moves, counts, total, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the same perft sequentially and on {@code pool}, prints both results and the speedup,
+     * and returns the speedup. A speedup well below the pool's parallelism points at contention.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search
+     * @param pool the pool to run the parallel search on
+     * @return sequential time divided by parallel time
+     * @throws IllegalStateException if the two runs disagree on the node count
+     */
+    public static double compare(Bitboard position, int depth, ForkJoinPool pool) {
+        return compare(position, depth, pool, null);
+    }
+
+    /**
+     * Like {@link #compare(Bitboard, int, ForkJoinPool)}, with both runs counting through
+     * {@code cache}. The cache is cleared before each run so neither starts warm, and its
+     * statistics are printed after each.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search
+     * @param pool the pool to run the parallel search on
+     * @param cache the cache to share subtree counts through, or {@code null} for none
+     * @return sequential time divided by parallel time
+     * @throws IllegalStateException if the two runs disagree on the node count
+     */
+    public static double compare(Bitboard position, int depth, ForkJoinPool pool, PerftCache cache) {
+        if (cache != null) cache.clear();
+        Perft.Result sequential = Perft.divide(new Bitboard(position), depth, cache);
+        String sequentialCache = (cache != null) ? cache.toString() : null;
+
+        if (cache != null) cache.clear();
+        Perft.Result parallel = divide(position, depth, pool, cache);
+        if (sequential.getNodes() != parallel.getNodes()) {
+            throw new IllegalStateException("Parallel perft counted " + parallel.getNodes()
+                + " nodes, sequential counted " + sequential.getNodes());
+        }
+
+        double speedup = (double) sequential.getNanos() / Math.max(1L, parallel.getNanos());
+        System.out.print(parallel);
+        System.out.printf("%nSequential: %d ms (%,d nps)%nParallel:   %d ms (%,d nps) on %d threads%nSpeedup: %.2fx%n",
+            sequential.getNanos() / 1_000_000, sequential.getNodesPerSecond(),
+            parallel.getNanos() / 1_000_000, parallel.getNodesPerSecond(), pool.getParallelism(), speedup);
+        if (cache != null) System.out.printf("Sequential %s%nParallel   %s%n", sequentialCache, cache);
+        return speedup;
+    }
+}
@@ -165,6 +165,20 @@ public class Pawn extends PieceBehaviors {
         return false;
     }
 
+    /**
+     * Returns the squares a pawn of {@code side} on {@code square} attacks as a {@link Bitboard} mask.
+     *
+     * @param square the pawn's square, numbered as in {@link Bitboard}
+     * @param side {@link Bitboard#WHITE} or {@link Bitboard#BLACK}
+     * @return a board of attacked squares
+     */
+    public static long attacks(int square, int side) {
+        long b = 1L << square;
+        if (side == Bitboard.WHITE) 
+            return ((b >>> 9) & Bitboard.NOT_FILE_H) | ((b >>> 7) & Bitboard.NOT_FILE_A);
+        return ((b << 7) & Bitboard.NOT_FILE_H) | ((b << 9) & Bitboard.NOT_FILE_A);
+    }
+
     @Override
     public Object clone() throws CloneNotSupportedException {
         var pawn = new Pawn(this.getPosition(), this.getColor());
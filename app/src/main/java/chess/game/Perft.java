@@ -0,0 +1,296 @@
+package chess.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Performance test (perft) for the move generator: counts the leaf nodes of the legal move tree
+ * to a fixed depth.
+ * <p>
+ * Moves come from a {@link LegalMoveGenerator} for each node, and are played and taken back on a
+ * single position with {@link Bitboard#makeMove} and {@link Bitboard#unmakeMove}. Node counts are
+ * compared against the well known reference positions to catch generator bugs, and the reported
+ * nodes per second serve as the throughput benchmark for generator changes.
+ * </p>
+ *
+ * <p>Command line usage:</p>
+ * <pre>
+ *   Perft [depth] [fen]              divide the position (the starting position by default)
+ *   Perft --parallel [depth] [fen]   run sequentially and on all cores, and report the speedup
+ *   Perft --check [max depth]        verify every reference position up to max depth
+ * </pre>
+ * <p>
+ * Adding {@code --hash <MB>} before the depth counts through a {@link PerftCache} of that size and
+ * prints its hit rate after the result.
+ * </p>
+ */
+public final class Perft {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final int[] PROMOTIONS = {Bitboard.QUEEN, Bitboard.ROOK, Bitboard.BISHOP, Bitboard.KNIGHT};
+    private static final int DEFAULT_DEPTH = 5;
+    private static final int DEFAULT_CHECK_DEPTH = 4;
+
+    /**
+     * Reference positions with their known node counts, starting at depth 1.
+     */
+    public enum Reference {
+        INITIAL(START_FEN,
+            20L, 400L, 8_902L, 197_281L, 4_865_609L, 119_060_324L),
+        KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            48L, 2_039L, 97_862L, 4_085_603L, 193_690_690L),
+        POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            14L, 191L, 2_812L, 43_238L, 674_624L, 11_030_083L),
+        POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            6L, 264L, 9_467L, 422_333L, 15_833_292L),
+        POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            44L, 1_486L, 62_379L, 2_103_487L, 89_941_194L),
+        POSITION_6("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            46L, 2_079L, 89_890L, 3_894_594L, 164_075_551L);
+
+        private final String fen;
+        private final long[] nodes;
+
+        Reference(String fen, long... nodes) {
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        public String getFen() {return this.fen;}
+
+        public int getMaxDepth() {return this.nodes.length;}
+
+        /**
+         * Returns the expected node count at {@code depth}.
+         *
+         * @throws IllegalArgumentException if no count is known for that depth
+         */
+        public long getNodes(int depth) {
+            if (depth < 1 || depth > this.nodes.length)
+                throw new IllegalArgumentException("No reference count for depth " + depth);
+            return this.nodes[depth - 1];
+        }
+    }
+
+    /**
+     * The outcome of a perft run: per root move node counts, the total, and the time taken.
+     */
+    public static final class Result {
+        private final int depth;
+        private final List<String> moves;
+        private final List<Long> counts;
+        private final long nodes;
+        private final long nanos;
+
+        Result(int depth, List<String> moves, List<Long> counts, long nodes, long nanos) {
+            this.depth = depth;
+            this.moves = Collections.unmodifiableList(moves);
+            this.counts = Collections.unmodifiableList(counts);
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        public int getDepth() {return this.depth;}
+
+        /** Root moves in coordinate notation, e.g. {@code "e2e4"} or {@code "e7e8q"}. */
+        public List<String> getMoves() {return this.moves;}
+
+        /** Leaf counts below each root move, in the same order as {@link #getMoves()}. */
+        public List<Long> getCounts() {return this.counts;}
+
+        public long getNodes() {return this.nodes;}
+
+        public long getNanos() {return this.nanos;}
+
+        public long getNodesPerSecond() {
+            return (this.nanos == 0) ? 0 : (long) (this.nodes * 1_000_000_000.0 / this.nanos);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < this.moves.size(); i++) {
+                sb.append(this.moves.get(i)).append(": ").append(this.counts.get(i)).append('\n');
+            }
+            sb.append(String.format("%nDepth: %d%nNodes: %d%nTime: %d ms%nNPS: %d%n",
+                this.depth, this.nodes, this.nanos / 1_000_000, this.getNodesPerSecond()));
+            return sb.toString();
+        }
+    }
+
+    private Perft() {}
+
+    /**
+     * Counts the leaf nodes of the legal move tree below {@code position}. The position is restored
+     * before this method returns.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search
+     * @return the number of leaf nodes
+     */
+    public static long perft(Bitboard position, int depth) {return perft(position, depth, null);}
+
+    /**
+     * Counts the leaf nodes below {@code position}, looking up and storing subtree counts in
+     * {@code cache}. Transpositions are then counted only once, which pays off from about depth 5.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search
+     * @param cache the cache to share subtree counts through, or {@code null} for none
+     * @return the number of leaf nodes
+     */
+    public static long perft(Bitboard position, int depth, PerftCache cache) {
+        if (depth == 0) return 1L;
+
+        // Depth 1 subtrees are cheaper to count than to look up
+        boolean cached = cache != null && depth > 1;
+        if (cached) {
+            long nodes = cache.probe(position.getKey(), depth);
+            if (nodes >= 0) return nodes;
+        }
+
+        long nodes = 0L;
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+        long own = position.getOccupancy(position.getSideToMove());
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+
+            long targets = generator.legalTargets(from);
+            boolean promotes = isPromotingPawn(position, from);
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+
+                if (depth == 1) {
+                    // Leaf moves need not be played, only counted
+                    nodes += promotes ? PROMOTIONS.length : 1;
+                    continue;
+                }
+                for (int i = 0, n = promotes ? PROMOTIONS.length : 1; i < n; i++) {
+                    long undo = position.makeMove(from, to, PROMOTIONS[i]);
+                    nodes += perft(position, depth - 1, cache);
+                    position.unmakeMove(undo);
+                }
+            }
+        }
+
+        if (cached) cache.store(position.getKey(), depth, nodes);
+        return nodes;
+    }
+
+    /**
+     * Runs perft and reports the node count below each root move.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search, at least 1
+     * @return the per move counts, total nodes and timing
+     */
+    public static Result divide(Bitboard position, int depth) {return divide(position, depth, null);}
+
+    /**
+     * Runs perft through {@code cache} and reports the node count below each root move.
+     *
+     * @param position the position to search from
+     * @param depth the number of plies to search, at least 1
+     * @param cache the cache to share subtree counts through, or {@code null} for none
+     * @return the per move counts, total nodes and timing
+     */
+    public static Result divide(Bitboard position, int depth, PerftCache cache) {
+        if (depth < 1) throw new IllegalArgumentException("Depth must be at least 1.");
+
+        List<String> moves = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        long total = 0L;
+        long start = System.nanoTime();
+
+        MoveList rootMoves = legalMoves(position);
+        for (int i = 0; i < rootMoves.size(); i++) {
+            long undo = position.makeMove(rootMoves.get(i));
+            long count = perft(position, depth - 1, cache);
+            position.unmakeMove(undo);
+
+            moves.add(Move.toString(rootMoves.get(i)));
+            counts.add(count);
+            total += count;
+        }
+
+        return new Result(depth, moves, counts, total, System.nanoTime() - start);
+    }
+
+    /**
+     * Lists the legal moves of {@code position}. Only meant for the few nodes near the root; the
+     * recursive count in {@link #perft} works on target masks and does not build lists.
+     */
+    static MoveList legalMoves(Bitboard position) {
+        MoveList moves = new MoveList();
+        new LegalMoveGenerator(position).generate(moves);
+        return moves;
+    }
+
+    private static boolean isPromotingPawn(Bitboard position, int from) {
+        int piece = position.pieceAt(from);
+        if (Bitboard.typeOf(piece) != Bitboard.PAWN) return false;
+        int lastRow = (Bitboard.sideOf(piece) == Bitboard.WHITE) ? 1 : 6;
+        return Bitboard.row(from) == lastRow;
+    }
+
+    /**
+     * Runs every reference position up to {@code maxDepth} and prints the outcome of each.
+     *
+     * @param maxDepth the deepest level to verify
+     * @return {@code true} if every count matched
+     */
+    public static boolean checkReferences(int maxDepth) {
+        boolean allPassed = true;
+        for (Reference reference : Reference.values()) {
+            for (int depth = 1; depth <= Math.min(maxDepth, reference.getMaxDepth()); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft(Bitboard.fromFen(reference.getFen()), depth);
+                long nanos = System.nanoTime() - start;
+                boolean passed = nodes == reference.getNodes(depth);
+                allPassed &= passed;
+
+                System.out.printf("%-10s depth %d: %,15d %s (%,d nps)%n", reference, depth, nodes,
+                    passed ? "ok" : "FAILED, expected " + reference.getNodes(depth),
+                    (nanos == 0) ? 0 : (long) (nodes * 1_000_000_000.0 / nanos));
+            }
+        }
+        return allPassed;
+    }
+
+    public static void main(String[] args) {
+        boolean parallel = false;
+        boolean check = false;
+        PerftCache cache = null;
+        int first = 0;
+        for (; first < args.length && args[first].startsWith("--"); first++) {
+            switch (args[first]) {
+                case "--parallel": parallel = true; break;
+                case "--check": check = true; break;
+                case "--hash": cache = new PerftCache(Integer.parseInt(args[++first])); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[first]);
+            }
+        }
+
+        if (check) {
+            int maxDepth = (args.length > first) ? Integer.parseInt(args[first]) : DEFAULT_CHECK_DEPTH;
+            if (!checkReferences(maxDepth)) System.exit(1);
+            return;
+        }
+
+        int depth = (args.length > first) ? Integer.parseInt(args[first]) : DEFAULT_DEPTH;
+        String fen = (args.length > first + 1) 
+            ? String.join(" ", List.of(args).subList(first + 1, args.length)) : START_FEN;
+
+        if (parallel) {
+            ParallelPerft.compare(Bitboard.fromFen(fen), depth, ForkJoinPool.commonPool(), cache);
+        } else {
+            System.out.print(divide(Bitboard.fromFen(fen), depth, cache));
+            if (cache != null) System.out.println(cache);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package chess.game;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free cache of perft subtree node counts, keyed by {@link Zobrist} position key
+ * and remaining depth.
+ * <p>
+ * Entries live in a flat {@code long[]} as pairs of {@code (key ^ data, data)}, where {@code data}
+ * packs the node count with the depth. An entry is only trusted when XOR-ing its two words gives
+ * back the probed key, so an entry torn by two threads writing at once reads as a miss instead of
+ * a wrong count. This lets any number of perft threads share the cache without locks.
+ * </p>
+ * <p>
+ * Each bucket holds two entries: the first keeps the deepest count seen for that bucket and the
+ * second is always replaced.
+ * </p>
+ */
+public final class PerftCache {
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_LONGS = 2 * ENTRY_LONGS;
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+    private static final long DEPTH_SALT = 0x9E3779B97F4A7C15L;
+
+    private final long[] table;
+    private final int bucketMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache using at most {@code megabytes} of memory, rounded down to a power of two
+     * number of buckets.
+     *
+     * @param megabytes the memory budget, at least 1
+     */
+    public PerftCache(int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("Cache size must be at least 1 MB.");
+
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (BUCKET_LONGS * Long.BYTES));
+        if (buckets * BUCKET_LONGS > Integer.MAX_VALUE - 8) buckets >>= 1;
+        this.table = new long[(int) buckets * BUCKET_LONGS];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Returns the cached node count for a position and depth, or -1 if there is none.
+     *
+     * @param key the position's Zobrist key
+     * @param depth the remaining depth
+     * @return the node count, or -1 on a miss
+     */
+    public long probe(long key, int depth) {
+        long lookup = key ^ (depth * DEPTH_SALT);
+        int bucket = this.bucketOf(lookup);
+
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = this.table[i + 1];
+            if ((this.table[i] ^ data) == lookup) {
+                this.hits.increment();
+                return data >>> DEPTH_BITS;
+            }
+        }
+        this.misses.increment();
+        return -1L;
+    }
+
+    /**
+     * Stores the node count for a position and depth.
+     *
+     * @param key the position's Zobrist key
+     * @param depth the remaining depth, below 256
+     * @param nodes the subtree node count
+     */
+    public void store(long key, int depth, long nodes) {
+        long lookup = key ^ (depth * DEPTH_SALT);
+        int bucket = this.bucketOf(lookup);
+        long data = (nodes << DEPTH_BITS) | depth;
+
+        // The first entry only gives way to counts at least as deep as its own
+        int i = ((this.table[bucket + 1] & DEPTH_MASK) <= depth) ? bucket : bucket + ENTRY_LONGS;
+        this.table[i] = lookup ^ data;
+        this.table[i + 1] = data;
+    }
+
+    private int bucketOf(long lookup) {
+        return ((int) (lookup ^ (lookup >>> 32)) & this.bucketMask) * BUCKET_LONGS;
+    }
+
+    public long getHits() {return this.hits.sum();}
+
+    public long getMisses() {return this.misses.sum();}
+
+    public double getHitRate() {
+        long hits = this.getHits();
+        long probes = hits + this.getMisses();
+        return (probes == 0) ? 0.0 : (double) hits / probes;
+    }
+
+    public int getSizeMegabytes() {return (int) (((long) this.table.length * Long.BYTES) >> 20);}
+
+    /**
+     * Empties the cache and resets its statistics.
+     */
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache: %d MB, %,d hits, %,d misses (%.1f%% hit rate)",
+            this.getSizeMegabytes(), this.getHits(), this.getMisses(), 100 * this.getHitRate());
+    }
+}
@@ -0,0 +1,97 @@
+package chess.game;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * One game read by {@link PgnReader}: its tag pairs, its moves as {@link Move}-encoded ints and its
+ * result. Comments, annotations and variations are not kept.
+ * <p>
+ * A game whose movetext holds a move that is not legal keeps the moves before it and reports the
+ * problem through {@link #getError()}, so one bad game does not stop an import.
+ * </p>
+ */
+public final class PgnGame {
+
+    private final long number;
+    private final Map<String, String> tags;
+    private final int[] moves;
+    private final String result;
+    private final String error;
+
+    PgnGame(long number, Map<String, String> tags, int[] moves, String result, String error) {
+        this.number = number;
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = moves;
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * Returns a copy of this game numbered {@code number}, for games read from a slice of a larger
+     * source.
+     */
+    PgnGame renumber(long number) {
+        return new PgnGame(number, this.tags, this.moves, this.result, this.error);
+    }
+
+    /** Position of this game in its source, counting from 1. */
+    public long getNumber() {return this.number;}
+
+    /** The tag pairs in the order they appeared. */
+    public Map<String, String> getTags() {return this.tags;}
+
+    /**
+     * Returns the value of a tag, or {@code null} if the game does not have it.
+     */
+    public String getTag(String name) {return this.tags.get(name);}
+
+    /**
+     * Returns the game result token: {@code 1-0}, {@code 0-1}, {@code 1/2-1/2} or {@code *}.
+     */
+    public String getResult() {return this.result;}
+
+    public int getMoveCount() {return this.moves.length;}
+
+    /**
+     * Returns the move played at {@code ply}, counting from 0.
+     */
+    public int getMove(int ply) {return this.moves[ply];}
+
+    public int[] getMoves() {return Arrays.copyOf(this.moves, this.moves.length);}
+
+    /**
+     * Returns why the game could not be read to the end, or {@code null} if it was.
+     */
+    public String getError() {return this.error;}
+
+    public boolean isValid() {return this.error == null;}
+
+    /**
+     * Returns the position the game started from, which is the starting position unless the game
+     * has a {@code FEN} tag.
+     */
+    public Bitboard getStartPosition() {
+        String fen = this.tags.get("FEN");
+        return Fen.parse((fen != null) ? fen : Fen.STARTING_POSITION);
+    }
+
+    /**
+     * Replays the moves from the start position.
+     *
+     * @return the position after the last move read
+     */
+    public Bitboard getFinalPosition() {
+        Bitboard position = this.getStartPosition();
+        for (int move : this.moves) position.makeMove(move);
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Game %d: %s - %s, %d plies, %s%s", this.number,
+            this.tags.getOrDefault("White", "?"), this.tags.getOrDefault("Black", "?"),
+            this.moves.length, this.result, (this.error != null) ? " (" + this.error + ")" : "");
+    }
+}
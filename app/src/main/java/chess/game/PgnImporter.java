@@ -0,0 +1,276 @@
+package chess.game;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Imports a PGN file on several cores.
+ * <p>
+ * The import runs in three stages:
+ * </p>
+ * <ol>
+ *   <li>the calling thread cuts the file into chunks of about {@link #getChunkSize()} bytes that end
+ *       on game boundaries, and memory-maps each one;</li>
+ *   <li>a fixed pool of workers reads each chunk with its own {@link PgnReader}, which checks every
+ *       move for legality as it goes;</li>
+ *   <li>the calling thread hands the games to the sink chunk by chunk, in file order, numbering them
+ *       as they appear in the file.</li>
+ * </ol>
+ * <p>
+ * At most two chunks per worker are mapped at once, so memory use does not grow with the file. As
+ * in the PGN export format, a game starts at a line beginning with {@code [} and a tag name after a
+ * blank line, so a comment line such as {@code [%clk 0:03:00]} is never taken for one. A game with
+ * no tags at all, or with no blank line before it, is read together with the game before it.
+ * </p>
+ */
+public final class PgnImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    private static final int CHUNKS_PER_WORKER = 2;
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+    private static final int LOOKBACK = 1 << 10;
+
+    private final int threads;
+    private final int chunkSize;
+
+    /**
+     * The outcome of an import: game counts, timing, and how full the two queues between the stages
+     * were. A parse queue that is often empty means splitting is the bottleneck; a merge queue that
+     * is often full means one slow chunk is holding back the ones after it.
+     */
+    public static final class Report {
+        private final long games;
+        private final long invalidGames;
+        private final long chunks;
+        private final long nanos;
+        private final int threads;
+        private final int maxParseQueue;
+        private final double averageParseQueue;
+        private final int maxMergeQueue;
+        private final double averageMergeQueue;
+
+        Report(long games, long invalidGames, long chunks, long nanos, int threads, int maxParseQueue,
+               double averageParseQueue, int maxMergeQueue, double averageMergeQueue) {
+            this.games = games;
+            this.invalidGames = invalidGames;
+            this.chunks = chunks;
+            this.nanos = nanos;
+            this.threads = threads;
+            this.maxParseQueue = maxParseQueue;
+            this.averageParseQueue = averageParseQueue;
+            this.maxMergeQueue = maxMergeQueue;
+            this.averageMergeQueue = averageMergeQueue;
+        }
+
+        public long getGames() {return this.games;}
+
+        /** Games with an illegal move or an unreadable {@code FEN} tag. */
+        public long getInvalidGames() {return this.invalidGames;}
+
+        public long getChunks() {return this.chunks;}
+
+        public long getNanos() {return this.nanos;}
+
+        public int getThreads() {return this.threads;}
+
+        /** Most chunks waiting for or being parsed by a worker at once. */
+        public int getMaxParseQueue() {return this.maxParseQueue;}
+
+        public double getAverageParseQueue() {return this.averageParseQueue;}
+
+        /** Most parsed chunks waiting for an earlier chunk before they could be merged. */
+        public int getMaxMergeQueue() {return this.maxMergeQueue;}
+
+        public double getAverageMergeQueue() {return this.averageMergeQueue;}
+
+        public long getGamesPerSecond() {
+            return (this.nanos == 0) ? 0 : (long) (this.games * 1_000_000_000.0 / this.nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Games: %,d (%,d invalid) in %,d chunks%nTime: %d ms on %d threads%nGames/s: %,d%n"
+                + "Parse queue: max %d, average %.1f%nMerge queue: max %d, average %.1f%n",
+                this.games, this.invalidGames, this.chunks, this.nanos / 1_000_000, this.threads,
+                this.getGamesPerSecond(), this.maxParseQueue, this.averageParseQueue, this.maxMergeQueue,
+                this.averageMergeQueue);
+        }
+    }
+
+    /**
+     * Creates an importer that parses on {@code threads} workers.
+     *
+     * @param threads the number of worker threads, at least 1
+     * @param chunkSize the number of bytes to aim for per chunk, at least 1
+     */
+    public PgnImporter(int threads, int chunkSize) {
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be at least 1.");
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1 byte.");
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates an importer with one worker per available processor.
+     */
+    public PgnImporter() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public int getThreads() {return this.threads;}
+
+    public int getChunkSize() {return this.chunkSize;}
+
+    /**
+     * Reads every game in {@code path} and hands each to {@code sink} on the calling thread, in the
+     * order they appear in the file.
+     *
+     * @param path the PGN file to import
+     * @param sink receives each game
+     * @return counts, timing and queue depths of the import
+     * @throws IOException if the file cannot be read
+     */
+    public Report importFile(Path path, Consumer<PgnGame> sink) throws IOException {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "pgn-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ArrayDeque<Future<List<PgnGame>>> pending = new ArrayDeque<>();
+        long games = 0L;
+        long invalidGames = 0L;
+        long chunks = 0L;
+        int maxParseQueue = 0;
+        int maxMergeQueue = 0;
+        long parseQueueTotal = 0L;
+        long mergeQueueTotal = 0L;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = 0L;
+            while (offset < size || !pending.isEmpty()) {
+                // Split and map chunks until the workers have enough to do
+                while (offset < size && pending.size() < this.threads * CHUNKS_PER_WORKER) {
+                    long end = nextGameStart(channel, offset + this.chunkSize, size);
+                    if (end - offset > Integer.MAX_VALUE) throw new IOException("No game boundary within 2 GB of offset " + offset);
+
+                    MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset, end - offset);
+                    pending.add(workers.submit(() -> parse(chunk)));
+                    offset = end;
+                    chunks++;
+                }
+
+                int parsed = 0;
+                for (Future<List<PgnGame>> future : pending) if (future.isDone()) parsed++;
+                int parsing = pending.size() - parsed;
+                maxParseQueue = Math.max(maxParseQueue, parsing);
+                maxMergeQueue = Math.max(maxMergeQueue, parsed);
+                parseQueueTotal += parsing;
+                mergeQueueTotal += parsed;
+
+                for (PgnGame game : pending.poll().get()) {
+                    games++;
+                    if (!game.isValid()) invalidGames++;
+                    sink.accept(game.renumber(games));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PGN import interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        double samples = Math.max(1L, chunks);
+        return new Report(games, invalidGames, chunks, System.nanoTime() - start, this.threads,
+            maxParseQueue, parseQueueTotal / samples, maxMergeQueue, mergeQueueTotal / samples);
+    }
+
+    private static List<PgnGame> parse(ByteBuffer chunk) {
+        List<PgnGame> games = new ArrayList<>();
+        new PgnReader(chunk).forEachRemaining(games::add);
+        return games;
+    }
+
+    /**
+     * Returns the offset of the first game that starts at or after {@code from}, or {@code size} if
+     * there is none. Scanning starts a little before {@code from} to see whether the line before
+     * is blank; if that line started earlier still it is treated as not blank, which can only make
+     * a chunk longer.
+     */
+    static long nextGameStart(FileChannel channel, long from, long size) throws IOException {
+        if (from >= size) return size;
+
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = Math.max(0L, from - LOOKBACK);
+        boolean lineStart = position == 0;
+        boolean previousIsBlank = position == 0;
+        boolean currentIsBlank = lineStart;
+        long candidate = -1L;
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++, position++) {
+                byte b = buffer.get(i);
+                // A '[' only starts a tag if a tag name follows it
+                if (candidate >= 0) {
+                    if ((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z')) return candidate;
+                    candidate = -1L;
+                }
+                if (lineStart) {
+                    if (b == '[' && previousIsBlank && position >= from) candidate = position;
+                    lineStart = false;
+                }
+                if (b == '\n') {
+                    previousIsBlank = currentIsBlank;
+                    currentIsBlank = true;
+                    lineStart = true;
+                } else if (b != ' ' && b != '\r' && b != '\t') {
+                    currentIsBlank = false;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Imports a PGN file and prints the report.
+     * <pre>
+     *   PgnImporter file.pgn [threads] [chunk size in KB]
+     * </pre>
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) throw new IllegalArgumentException("Usage: PgnImporter file.pgn [threads] [chunk KB]");
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int chunkSize = (args.length > 2) ? Integer.parseInt(args[2]) << 10 : DEFAULT_CHUNK_SIZE;
+
+        long[] plies = {0L};
+        Report report = new PgnImporter(threads, chunkSize).importFile(Paths.get(args[0]), game -> plies[0] += game.getMoveCount());
+        System.out.print(report);
+        System.out.printf("Plies: %,d%n", plies[0]);
+    }
+}
@@ -0,0 +1,358 @@
+package chess.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads games from Portable Game Notation one at a time, so archives of any size can be imported
+ * in a fixed amount of memory.
+ * <p>
+ * Input is read from a channel into a single reused buffer and scanned byte by byte. Tag values
+ * are decoded as UTF-8 and movetext is treated as ASCII. Each move is read as {@link San} against
+ * a {@link Bitboard} that follows the game, and the game is handed out as a {@link PgnGame} once
+ * its result token is reached. Comments, numeric annotation glyphs, variations and {@code %}
+ * escape lines are skipped. A game with an unreadable {@code FEN} tag or an illegal move is still
+ * handed out, marked invalid with the error, and reading goes on with the next game.
+ * </p>
+ * <p>
+ * A reader is not thread-safe, and it owns its channel: closing the reader, or a stream from
+ * {@link #stream()}, closes the channel.
+ * </p>
+ */
+public final class PgnReader implements Iterator<PgnGame>, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int END = -1;
+    private static final int NOTHING = -2;
+    private static final Bitboard START = Fen.parse(Fen.STARTING_POSITION);
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final MoveList moves = new MoveList();
+    private byte[] text = new byte[64];
+    private int textLength;
+    private int pushedBack = NOTHING;
+    private long gamesRead;
+    private PgnGame next;
+    private boolean finished;
+    private boolean streamStart = true;
+
+    /**
+     * Creates a reader over {@code channel}, which is read from its current position to its end.
+     *
+     * @param channel the channel to read PGN from
+     */
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.buffer.flip();
+    }
+
+    /**
+     * Creates a reader over the remaining bytes of {@code source}, e.g. a memory-mapped slice of a
+     * file, without copying them. The source buffer's position is not changed.
+     *
+     * @param source the PGN bytes to read
+     */
+    PgnReader(ByteBuffer source) {
+        this.channel = null;
+        this.buffer = source.slice();
+    }
+
+    /**
+     * Opens a PGN file for reading.
+     *
+     * @param path the file to read
+     * @return a reader over the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * @throws UncheckedIOException if reading the channel fails
+     */
+    @Override
+    public boolean hasNext() {
+        if (this.next == null && !this.finished) {
+            this.next = this.readGame();
+            this.finished = this.next == null;
+        }
+        return this.next != null;
+    }
+
+    /**
+     * @throws UncheckedIOException if reading the channel fails
+     */
+    @Override
+    public PgnGame next() {
+        if (!this.hasNext()) throw new NoSuchElementException();
+        PgnGame game = this.next;
+        this.next = null;
+        return game;
+    }
+
+    /**
+     * Returns the remaining games as a sequential stream. Closing the stream closes this reader.
+     */
+    public Stream<PgnGame> stream() {
+        Spliterator<PgnGame> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                this.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** Number of games read so far, valid or not. */
+    public long getGamesRead() {return this.gamesRead;}
+
+    @Override
+    public void close() throws IOException {
+        if (this.channel != null) this.channel.close();
+    }
+
+    /**
+     * Reads the tag pairs and movetext of the next game, or returns {@code null} at the end of the
+     * input.
+     */
+    private PgnGame readGame() {
+        int c = this.skipWhitespace();
+        if (c == END) return null;
+
+        long number = ++this.gamesRead;
+        Map<String, String> tags = new LinkedHashMap<>();
+        while (c == '[') {
+            this.readTag(tags);
+            c = this.skipWhitespace();
+        }
+
+        Bitboard position = null;
+        String error = null;
+        String fen = tags.get("FEN");
+        try {
+            position = (fen != null) ? Fen.parse(fen) : new Bitboard(START);
+        } catch (RuntimeException e) {
+            error = "FEN tag: " + describe(e);
+        }
+
+        this.moves.clear();
+        String result = "*";
+        movetext:
+        while (c != END) {
+            switch (c) {
+                case '[':
+                    // The next game's tags, this one has no result
+                    this.pushedBack = c;
+                    break movetext;
+                case '{':
+                    this.skipPast('}');
+                    break;
+                case ';':
+                    this.skipPast('\n');
+                    break;
+                case '(':
+                    this.skipVariation();
+                    break;
+                case ')':
+                case '}':
+                case ']':
+                    // Stray closing brackets end no token, so they are skipped on their own
+                    break;
+                default:
+                    this.readToken(c);
+                    String token = this.resultToken();
+                    if (token != null) {
+                        result = token;
+                        break movetext;
+                    }
+                    if (error == null) error = this.playToken(position);
+            }
+            c = this.skipWhitespace();
+        }
+
+        return new PgnGame(number, tags, this.moves.toArray(), result, error);
+    }
+
+    /**
+     * Plays the SAN move in the token buffer, skipping any move number in front of it. Returns an
+     * error message if the move is not legal, or if playing it fails in any other way, so one bad
+     * game never ends the reading of those after it.
+     */
+    private String playToken(Bitboard position) {
+        int start = 0;
+        while (start < this.textLength && this.text[start] >= '0' && this.text[start] <= '9') start++;
+        if (start > 0 && start < this.textLength && this.text[start] == '.') {
+            while (start < this.textLength && this.text[start] == '.') start++;
+        } else {
+            start = 0;
+        }
+        if (start == this.textLength) return null;
+
+        // Annotation glyphs written apart from their move
+        byte first = this.text[start];
+        if (first == '$' || first == '!' || first == '?') return null;
+
+        String san = new String(this.text, start, this.textLength - start, StandardCharsets.ISO_8859_1);
+        try {
+            int move = San.parse(position, san);
+            position.makeMove(move);
+            this.moves.add(move);
+            return null;
+        } catch (RuntimeException e) {
+            return "Ply " + (this.moves.size() + 1) + ": " + describe(e);
+        }
+    }
+
+    private static String describe(RuntimeException e) {
+        return (e instanceof IllegalArgumentException) ? e.getMessage() : e.toString();
+    }
+
+    private String resultToken() {
+        if (this.textLength > 7) return null;
+        for (String result : RESULTS) {
+            if (result.length() != this.textLength) continue;
+            boolean matches = true;
+            for (int i = 0; i < this.textLength && matches; i++) matches = this.text[i] == result.charAt(i);
+            if (matches) return result;
+        }
+        return null;
+    }
+
+    private void readTag(Map<String, String> tags) {
+        this.textLength = 0;
+        int c = this.skipWhitespace();
+        while (c != END && c != '"' && c != ']' && !isWhitespace(c)) {
+            this.append(c);
+            c = this.read();
+        }
+        String name = new String(this.text, 0, this.textLength, StandardCharsets.UTF_8);
+        while (isWhitespace(c)) c = this.read();
+
+        this.textLength = 0;
+        if (c == '"') {
+            c = this.read();
+            while (c != END && c != '"') {
+                if (c == '\\') c = this.read();
+                if (c == END) break;
+                this.append(c);
+                c = this.read();
+            }
+            c = this.read();
+        }
+        while (c != END && c != ']') c = this.read();
+        tags.put(name, new String(this.text, 0, this.textLength, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token starting with {@code first} into the token buffer, up to whitespace or a
+     * character that starts something else.
+     */
+    private void readToken(int first) {
+        this.textLength = 0;
+        int c = first;
+        while (c != END && !isWhitespace(c) && c != '{' && c != '}' && c != '(' && c != ')'
+               && c != ';' && c != '[' && c != ']') {
+            this.append(c);
+            c = this.read();
+        }
+        if (c != END) this.pushedBack = c;
+    }
+
+    private void skipVariation() {
+        int depth = 1;
+        while (depth > 0) {
+            int c = this.read();
+            if (c == END) return;
+            if (c == '(') depth++;
+            else if (c == ')') depth--;
+            else if (c == '{') this.skipPast('}');
+            else if (c == ';') this.skipPast('\n');
+        }
+    }
+
+    private void skipPast(int terminator) {
+        int c;
+        do {
+            c = this.read();
+        } while (c != END && c != terminator);
+    }
+
+    /**
+     * Skips whitespace and lines starting with {@code %}, and returns the first character after
+     * them. At the start of the stream a UTF-8 byte order mark is skipped too, and the first line
+     * counts as starting a line.
+     */
+    private int skipWhitespace() {
+        int c = this.read();
+        boolean lineStart = this.streamStart;
+        if (this.streamStart) {
+            this.streamStart = false;
+            if (c == 0xEF && (c = this.read()) == 0xBB && (c = this.read()) == 0xBF) c = this.read();
+        }
+        while (true) {
+            if (lineStart && c == '%') {
+                this.skipPast('\n');
+                c = '\n';
+            }
+            if (!isWhitespace(c)) return c;
+            lineStart = c == '\n';
+            c = this.read();
+        }
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+    }
+
+    private void append(int c) {
+        if (this.textLength == this.text.length) this.text = Arrays.copyOf(this.text, this.textLength * 2);
+        this.text[this.textLength++] = (byte) c;
+    }
+
+    private int read() {
+        if (this.pushedBack != NOTHING) {
+            int c = this.pushedBack;
+            this.pushedBack = NOTHING;
+            return c;
+        }
+        if (!this.buffer.hasRemaining() && !this.fill()) return END;
+        return this.buffer.get() & 0xFF;
+    }
+
+    private boolean fill() {
+        if (this.channel == null) return false;
+
+        this.buffer.clear();
+        try {
+            int read;
+            do {
+                read = this.channel.read(this.buffer);
+            } while (read == 0);
+            this.buffer.flip();
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -70,6 +70,53 @@ public interface Piece {
      */
     public Set<Position> generatePseudoLegalMoves(MoveContext moveContext);
 
+    /**
+     * Appends all pseudo-legal moves for this piece to {@code moves}, packed as {@link Move} ints,
+     * with one move per promotion piece when a pawn reaches the last row.
+     * <p>
+     * When the context is backed by a {@link Bitboard} position the moves come straight from its
+     * target masks and nothing is allocated. Otherwise they are translated from
+     * {@link #generatePseudoLegalMoves(MoveContext)}.
+     * </p>
+     *
+     * @param moveContext the context of the current move, including board state and other relevant information
+     * @param moves the list to append to
+     */
+    public default void generatePseudoLegalMoves(MoveContext moveContext, MoveList moves) {
+        int from = Bitboard.square(this.getPosition());
+        int lastRow = this.isWhite() ? 0 : 7;
+        boolean pawn = this instanceof Pawn;
+
+        Bitboard position = moveContext.getPosition();
+        if (position != null) {
+            long targets = position.pseudoLegalTargets(from);
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                addMove(moves, position, from, to, pawn && Bitboard.row(to) == lastRow);
+            }
+            return;
+        }
+
+        var board = moveContext.getBoard();
+        for (Position target : this.generatePseudoLegalMoves(moveContext)) {
+            int to = Bitboard.square(target);
+            int flags = 0;
+            if (board[target.getRow()][target.getColumn()] != null) flags |= Move.CAPTURE;
+            else if (pawn && target.getColumn() != this.getPosition().getColumn()) flags |= Move.CAPTURE | Move.EN_PASSANT;
+            if (this instanceof King && Math.abs(target.getColumn() - this.getPosition().getColumn()) == 2)
+                flags |= Move.CASTLE;
+
+            if (!pawn || target.getRow() != lastRow) moves.add(Move.encode(from, to, Bitboard.EMPTY, flags));
+            else for (int type = Bitboard.QUEEN; type >= Bitboard.ROOK; type--) moves.add(Move.encode(from, to, type, flags));
+        }
+    }
+
+    private static void addMove(MoveList moves, Bitboard position, int from, int to, boolean promotes) {
+        if (!promotes) moves.add(Move.of(position, from, to, Bitboard.EMPTY));
+        else for (int type = Bitboard.QUEEN; type >= Bitboard.ROOK; type--) moves.add(Move.of(position, from, to, type));
+    }
+
 
     /**
      * Creates and returns a copy of this object.
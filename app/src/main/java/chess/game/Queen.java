@@ -1,6 +1,5 @@
 package chess.game;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -52,17 +51,20 @@ public class Queen extends SlidingPieces {
 
     @Override
     public Set<Position> generatePseudoLegalMoves(MoveContext mContext) {
-        Set<Position> moves = new HashSet<>(MAX_MOVES);
         var board = mContext.getBoard();
+        int square = Bitboard.square(this.position);
+        return this.collectTargets(rookAttacks(square, board) | bishopAttacks(square, board), board, MAX_MOVES);
+    }
 
-        for (Direction direction : Direction.values()) {
-            this.processLine(direction.getRowDelta(), direction.getColDelta(), board, moves, (row, column, piece) -> {
-                if (piece == null || piece.getColor() != this.getColor()) moves.add(new Position(row, column));
-                return moves;
-            });
-        }
-
-        return moves;
+    /**
+     * Returns the squares a queen on {@code square} attacks as a {@link Bitboard} mask.
+     *
+     * @param square the queen's square, numbered as in {@link Bitboard}
+     * @param occupied the occupied squares that block the queen
+     * @return a board of attacked squares, including the first blocker on each line
+     */
+    public static long attacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied) | Magics.bishopAttacks(square, occupied);
     }
 
     @Override
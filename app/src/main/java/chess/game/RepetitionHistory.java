@@ -0,0 +1,115 @@
+package chess.game;
+
+/**
+ * A ring buffer of the {@link Zobrist} keys of the positions reached in a game, for detecting
+ * repetitions.
+ * <p>
+ * A position can only repeat one that came after the last capture or pawn move, and only one
+ * with the same side to move at least four plies earlier, so a lookup compares every second key
+ * from there back as far as the halfmove clock allows. That costs at most one comparison per two
+ * reversible plies, however long the game is. Keys older than the buffer's {@link #CAPACITY} are
+ * overwritten; the halfmove clock stays far below it in any game the fifty-move rule has not
+ * already ended.
+ * </p>
+ */
+public final class RepetitionHistory {
+
+    /**
+     * Number of keys kept, a power of two.
+     */
+    static final int CAPACITY = 1024;
+
+    private static final int INDEX_MASK = CAPACITY - 1;
+
+    private final long[] keys = new long[CAPACITY];
+    private int size;
+
+    /**
+     * Creates a history holding the key of the starting position.
+     *
+     * @param key the starting position's Zobrist key
+     */
+    public RepetitionHistory(long key) {
+        this.push(key);
+    }
+
+    /**
+     * Appends the key of the position reached by a move.
+     *
+     * @param key the new position's Zobrist key
+     */
+    public void push(long key) {
+        this.keys[this.size & INDEX_MASK] = key;
+        this.size++;
+    }
+
+    /**
+     * Removes the key of the current position, when its move is taken back.
+     *
+     * @throws IllegalStateException if only the starting position is left
+     */
+    public void pop() {
+        if (this.size <= 1) throw new IllegalStateException("No move to take back.");
+        this.size--;
+    }
+
+    /**
+     * Counts how often the current position has occurred, itself included.
+     *
+     * @param halfmoveClock the current position's halfmove clock, bounding how far back to look
+     * @return the number of occurrences, at least 1
+     */
+    public int occurrences(int halfmoveClock) {
+        int current = this.size - 1;
+        long key = this.keys[current & INDEX_MASK];
+        int oldest = Math.max(0, Math.max(current - halfmoveClock, current - INDEX_MASK));
+
+        int count = 1;
+        for (int i = current - 4; i >= oldest; i -= 2) {
+            if (this.keys[i & INDEX_MASK] == key) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Determines if the current position occurred before. A search treats this as a draw, since
+     * the side that repeated can repeat again.
+     *
+     * @param halfmoveClock the current position's halfmove clock
+     * @return {@code true} if the position occurred at least twice
+     */
+    public boolean isRepetition(int halfmoveClock) {
+        int current = this.size - 1;
+        long key = this.keys[current & INDEX_MASK];
+        int oldest = Math.max(0, Math.max(current - halfmoveClock, current - INDEX_MASK));
+
+        for (int i = current - 4; i >= oldest; i -= 2) {
+            if (this.keys[i & INDEX_MASK] == key) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Determines if the current position occurred for the third time, which lets either player
+     * claim a draw.
+     *
+     * @param halfmoveClock the current position's halfmove clock
+     * @return {@code true} if the position occurred at least three times
+     */
+    public boolean isThreefoldRepetition(int halfmoveClock) {
+        return this.occurrences(halfmoveClock) >= 3;
+    }
+
+    /**
+     * Determines if the current position occurred for the fifth time, which draws the game.
+     *
+     * @param halfmoveClock the current position's halfmove clock
+     * @return {@code true} if the position occurred at least five times
+     */
+    public boolean isFivefoldRepetition(int halfmoveClock) {
+        return this.occurrences(halfmoveClock) >= 5;
+    }
+
+    /** Number of positions held, the starting position included. */
+    public int size() {return this.size;}
+}
@@ -1,6 +1,5 @@
 package chess.game;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -64,6 +63,21 @@ public class Rook extends SlidingPieces {
         return this.hasMoved;
     }
 
+    void setHasMoved(boolean hasMoved) {
+        this.hasMoved = hasMoved;
+    }
+
+    /**
+     * Returns the squares a rook on {@code square} attacks as a {@link Bitboard} mask.
+     *
+     * @param square the rook's square, numbered as in {@link Bitboard}
+     * @param occupied the occupied squares that block the rook
+     * @return a board of attacked squares, including the first blocker on each line
+     */
+    public static long attacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied);
+    }
+
     public void move(Position p, MoveContext mContext) {
         super.move(p, mContext);
         this.hasMoved = true;
@@ -71,17 +85,8 @@ public class Rook extends SlidingPieces {
 
     @Override
     public Set<Position> generatePseudoLegalMoves(MoveContext mContext) {
-        Set<Position> moves = new HashSet<>(MAX_MOVES);
         var board = mContext.getBoard();
-
-        for (Direction dr : ORTHOGONALS) {
-            this.processLine(dr.getRowDelta(), dr.getColDelta(), board, moves, (row, column, piece) -> {
-                if (piece == null || piece.getColor() != this.getColor()) moves.add(new Position(row, column));
-                return moves;
-            });
-        }
-
-        return moves;
+        return this.collectTargets(rookAttacks(Bitboard.square(this.position), board), board, MAX_MOVES);
     }
 
     @Override
@@ -0,0 +1,181 @@
+package chess.game;
+
+/**
+ * Reads and writes moves in Standard Algebraic Notation, such as {@code e4}, {@code Nbd7},
+ * {@code exd8=Q+} or {@code O-O-O}, against a {@link Bitboard} position.
+ * <p>
+ * Written moves name the from file, rank or square only when another piece of the same kind can
+ * also legally reach the target, and end in {@code +} or {@code #} when they give check or mate.
+ * </p>
+ * <p>
+ * When reading, check, mate and annotation suffixes ({@code + # ! ?}) are ignored, castling may be written with
+ * letter O or digit 0, promotions may leave out the {@code =}, and a {@code -} between the
+ * squares of a long algebraic move is accepted. A missing {@code x} on a capture is tolerated, but
+ * a move that matches no legal move, matches more than one, or marks a capture that takes nothing
+ * is rejected.
+ * </p>
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = "RNBQK";
+    private static final String PROMOTION_LETTERS = "RNBQ";
+    private static final String SUFFIXES = "+#!?";
+    private static final long RANK_MASK = 0xFFL;
+    private static final int BOARD_DIMENSIONS = 8;
+
+    private San() {}
+
+    /**
+     * Finds the legal move a SAN string describes.
+     *
+     * @param position the position the move is played in
+     * @param san the move in SAN
+     * @return the {@link Move}-encoded move
+     * @throws IllegalArgumentException if the string is not SAN, or does not describe exactly one
+     *                                  legal move
+     */
+    public static int parse(Bitboard position, String san) {
+        int end = san.length();
+        while (end > 0 && SUFFIXES.indexOf(san.charAt(end - 1)) >= 0) end--;
+        if (end < 2) throw new IllegalArgumentException("Invalid SAN move: " + san);
+
+        int side = position.getSideToMove();
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+
+        if (isCastle(san, end)) {
+            int king = position.kingSquare(side);
+            if (king == Bitboard.NO_SQUARE) throw new IllegalArgumentException("Illegal move: " + san);
+            int to = (end == 3) ? king + 2 : king - 2;
+            if ((generator.legalTargets(king) & (1L << to)) == 0) throw new IllegalArgumentException("Illegal move: " + san);
+            return Move.of(position, king, to, Bitboard.EMPTY);
+        }
+
+        int start = 0;
+        int type = PIECE_LETTERS.indexOf(san.charAt(0));
+        if (type >= 0) start = 1;
+        else type = Bitboard.PAWN;
+
+        int promotion = Bitboard.EMPTY;
+        if (type == Bitboard.PAWN && PROMOTION_LETTERS.indexOf(san.charAt(end - 1)) >= 0) {
+            promotion = PROMOTION_LETTERS.indexOf(san.charAt(--end));
+            if (end > 0 && san.charAt(end - 1) == '=') end--;
+        }
+        if (end - start < 2) throw new IllegalArgumentException("Invalid SAN move: " + san);
+
+        int toColumn = san.charAt(end - 2) - 'a';
+        int toRow = '8' - san.charAt(end - 1);
+        if (!Position.isValidPosition(toRow, toColumn)) throw new IllegalArgumentException("Invalid SAN square: " + san);
+        int to = Bitboard.square(toRow, toColumn);
+
+        // Whatever is left between the piece letter and the target narrows down the from square
+        long candidates = position.getPieces(side, type);
+        boolean fileGiven = false;
+        boolean captureMark = false;
+        for (int i = start; i < end - 2; i++) {
+            char ch = san.charAt(i);
+            if (ch >= 'a' && ch <= 'h') {
+                candidates &= Bitboard.FILE_A << (ch - 'a');
+                fileGiven = true;
+            } else if (ch >= '1' && ch <= '8') {
+                candidates &= RANK_MASK << (BOARD_DIMENSIONS * ('8' - ch));
+            } else if (ch == 'x') {
+                captureMark = true;
+            } else if (ch != '-') {
+                throw new IllegalArgumentException("Invalid SAN move: " + san);
+            }
+        }
+        // Pawns only leave their file by capturing, which names the file they come from
+        if (type == Bitboard.PAWN && !fileGiven) candidates &= Bitboard.FILE_A << toColumn;
+
+        int from = Bitboard.NO_SQUARE;
+        while (candidates != 0) {
+            int square = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if ((generator.legalTargets(square) & (1L << to)) == 0) continue;
+            if (from != Bitboard.NO_SQUARE) throw new IllegalArgumentException("Ambiguous move: " + san);
+            from = square;
+        }
+        if (from == Bitboard.NO_SQUARE) throw new IllegalArgumentException("Illegal move: " + san);
+
+        boolean promotes = type == Bitboard.PAWN && (toRow == 0 || toRow == BOARD_DIMENSIONS - 1);
+        if (promotes != (promotion != Bitboard.EMPTY))
+            throw new IllegalArgumentException((promotes ? "Missing" : "Unexpected") + " promotion piece: " + san);
+
+        int move = Move.of(position, from, to, promotion);
+        if (captureMark && !Move.isCapture(move)) throw new IllegalArgumentException("Nothing to capture: " + san);
+        return move;
+    }
+
+    /**
+     * Writes a legal move in SAN. To find check and mate the move is played on {@code position} and
+     * taken back before this method returns, so the position is left as it was.
+     *
+     * @param position the position the move is played in
+     * @param move the {@link Move}-encoded move
+     * @return the move in SAN
+     */
+    public static String toSan(Bitboard position, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = position.pieceAt(from);
+        int type = Bitboard.typeOf(piece);
+        StringBuilder san = new StringBuilder(8);
+
+        if (type == Bitboard.KING && Math.abs(to - from) == 2) {
+            san.append((to > from) ? "O-O" : "O-O-O");
+        } else {
+            boolean capture = position.pieceAt(to) != Bitboard.EMPTY
+                || (type == Bitboard.PAWN && to == position.getEnPassantSquare());
+            if (type == Bitboard.PAWN) {
+                if (capture) san.append((char) ('a' + Bitboard.column(from)));
+            } else {
+                san.append(PIECE_LETTERS.charAt(type));
+                appendDisambiguation(san, position, Bitboard.sideOf(piece), type, from, to);
+            }
+            if (capture) san.append('x');
+            san.append(Bitboard.squareName(to));
+            if (Move.isPromotion(move)) san.append('=').append(PROMOTION_LETTERS.charAt(Move.promotion(move)));
+        }
+
+        long undo = position.makeMove(move);
+        if (position.isInCheck()) san.append(new LegalMoveGenerator(position).hasLegalMove() ? '+' : '#');
+        position.unmakeMove(undo);
+        return san.toString();
+    }
+
+    /**
+     * Names the from file if it sets the moving piece apart from the others of its kind that can
+     * reach {@code to}, else the from rank if that does, else the whole from square.
+     */
+    private static void appendDisambiguation(StringBuilder san, Bitboard position, int side, int type, int from, int to) {
+        long others = position.getPieces(side, type) & ~(1L << from);
+        if (others == 0) return;
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+        long rivals = 0L;
+        while (others != 0) {
+            int square = Long.numberOfTrailingZeros(others);
+            others &= others - 1;
+            if ((generator.legalTargets(square) & (1L << to)) != 0) rivals |= 1L << square;
+        }
+        if (rivals == 0) return;
+
+        if ((rivals & (Bitboard.FILE_A << Bitboard.column(from))) == 0) {
+            san.append((char) ('a' + Bitboard.column(from)));
+        } else if ((rivals & (RANK_MASK << (BOARD_DIMENSIONS * Bitboard.row(from)))) == 0) {
+            san.append((char) ('8' - Bitboard.row(from)));
+        } else {
+            san.append(Bitboard.squareName(from));
+        }
+    }
+
+    private static boolean isCastle(String san, int end) {
+        if (end != 3 && end != 5) return false;
+        char letter = san.charAt(0);
+        if (letter != 'O' && letter != '0') return false;
+        for (int i = 1; i < end; i += 2) {
+            if (san.charAt(i) != '-' || san.charAt(i + 1) != letter) return false;
+        }
+        return true;
+    }
+}
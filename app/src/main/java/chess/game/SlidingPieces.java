@@ -1,6 +1,8 @@
 package chess.game;
 
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Abstract class representing chess pieces that move by sliding across the board,
@@ -23,6 +25,12 @@ public abstract class SlidingPieces extends PieceBehaviors {
         Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT
     );
 
+    /*
+     * Array copies of the direction sets so attack generation does not create iterators
+     */
+    protected static final Direction[] DIAGONAL_DIRECTIONS = DIAGONALS.toArray(new Direction[0]);
+    protected static final Direction[] ORTHOGONAL_DIRECTIONS = ORTHOGONALS.toArray(new Direction[0]);
+
     /**
      * Constructs a new SlidingPieces object with the specified position and color.
      *
@@ -52,24 +60,103 @@ public abstract class SlidingPieces extends PieceBehaviors {
 
         if (!(r == newR ^ c == newC)) return false;
         
-        return isPathClear(board, r, c, newR, newC);
+        return isPathClear(board, rookAttacks(Bitboard.square(r, c), board), newR, newC);
     }
 
-    private boolean isPathClear(Piece[][] board, int r, int c, int newR, int newC) {
+    /**
+     * A target is reachable when it is among the squares attacked from the current position, which
+     * already stop at the first piece in every direction, and does not hold a piece of our own.
+     */
+    private boolean isPathClear(Piece[][] board, long attacks, int newR, int newC) {
         if (this.isPositionPieceSameColor(board, newR, newC)) return false;
 
-        int rowDelta = Integer.signum(newR - r);
-        int colDelta = Integer.signum(newC - c);
+        return (attacks & (1L << Bitboard.square(newR, newC))) != 0;
+    }
+
+    /**
+     * Returns the squares of {@code board} within {@code squares} that hold a piece.
+     *
+     * @param board the board to read
+     * @param squares the squares to look at, numbered as in {@link Bitboard}
+     * @return a board of the occupied squares among them
+     */
+    protected static long occupancy(Piece[][] board, long squares) {
+        long occupied = 0L;
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            if (board[Bitboard.row(square)][Bitboard.column(square)] != null) occupied |= 1L << square;
+        }
+        return occupied;
+    }
+
+    /**
+     * Returns the squares a rook on {@code square} attacks on a {@code Piece[][]} board. Only the
+     * squares in the rook's {@link Magics#rookMask relevance mask} are read before the table lookup.
+     */
+    protected static long rookAttacks(int square, Piece[][] board) {
+        return Magics.rookAttacks(square, occupancy(board, Magics.rookMask(square)));
+    }
+
+    /**
+     * Returns the squares a bishop on {@code square} attacks on a {@code Piece[][]} board. Only the
+     * squares in the bishop's {@link Magics#bishopMask relevance mask} are read before the table
+     * lookup.
+     */
+    protected static long bishopAttacks(int square, Piece[][] board) {
+        return Magics.bishopAttacks(square, occupancy(board, Magics.bishopMask(square)));
+    }
+
+    /**
+     * Collects the attacked squares that are empty or hold an opposing piece.
+     *
+     * @param attacks the attacked squares, numbered as in {@link Bitboard}
+     * @param board the board to read
+     * @param maxMoves the most moves the piece can have, used to size the set
+     * @return the pseudo-legal target positions
+     */
+    protected Set<Position> collectTargets(long attacks, Piece[][] board, int maxMoves) {
+        Set<Position> moves = new HashSet<>(maxMoves);
+        while (attacks != 0) {
+            int square = Long.numberOfTrailingZeros(attacks);
+            attacks &= attacks - 1;
+
+            int row = Bitboard.row(square);
+            int column = Bitboard.column(square);
+            if (!this.isPositionPieceSameColor(board, row, column)) moves.add(new Position(row, column));
+        }
+        return moves;
+    }
+
+    /**
+     * Walks each direction from {@code square} and collects every square up to and including the
+     * first occupied one.
+     *
+     * @param square the starting square, numbered as in {@link Bitboard}
+     * @param occupied the occupied squares
+     * @param directions the directions to walk
+     * @return a board of reached squares
+     */
+    protected static long slidingAttacks(int square, long occupied, Direction[] directions) {
+        long attacks = 0L;
+        int row = Bitboard.row(square);
+        int column = Bitboard.column(square);
 
-        if (this.processLine(rowDelta, colDelta, board, false, (row, column, piece) -> {
-            if ( ((rowDelta > 0)? row >= newR : row <= newR) 
-                && ((colDelta > 0)? column >= newC : column <= newC))
-                // If we've passed the target square, stop processing (don't care if it's occupied)
-                return false;
-            return piece != null;
-        })) return false;
+        for (Direction direction : directions) {
+            int dr = direction.getRowDelta();
+            int dc = direction.getColDelta();
+            int r = row + dr;
+            int c = column + dc;
 
-        return true;
+            while (Position.isValidPosition(r, c)) {
+                long bit = 1L << Bitboard.square(r, c);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                r += dr;
+                c += dc;
+            }
+        }
+        return attacks;
     }
 
     /**
@@ -90,6 +177,6 @@ public abstract class SlidingPieces extends PieceBehaviors {
         // Absolute value difference between tiles must be equal to each other
         if (Math.abs(r - newR) != Math.abs(c - newC) || targetPosition.equals(this.position)) return false;
 
-        return isPathClear(board, r, c, newR, newC);
+        return isPathClear(board, bishopAttacks(Bitboard.square(r, c), board), newR, newC);
     }
 }
@@ -0,0 +1,83 @@
+package chess.game;
+
+/**
+ * Packs everything needed to take back a move on a {@link Bitboard} into a single {@code long}, so
+ * playing and unplaying moves never allocates.
+ * <p>
+ * Layout, from the least significant bit:
+ * </p>
+ * <ul>
+ *   <li>bits 0-5: from square</li>
+ *   <li>bits 6-11: to square</li>
+ *   <li>bits 12-15: piece code of the moving piece (before any promotion)</li>
+ *   <li>bits 16-19: piece code of the captured piece plus one, 0 when nothing was captured</li>
+ *   <li>bits 20-23: castling rights before the move</li>
+ *   <li>bits 24-30: en passant square before the move plus one, 0 when there was none</li>
+ *   <li>bits 31-46: halfmove clock before the move</li>
+ *   <li>bit 47: the move was an en passant capture</li>
+ *   <li>bit 48: the move was a castle</li>
+ * </ul>
+ */
+public final class UndoRecord {
+
+    private static final int TO_SHIFT = 6;
+    private static final int MOVED_SHIFT = 12;
+    private static final int CAPTURED_SHIFT = 16;
+    private static final int CASTLING_SHIFT = 20;
+    private static final int EN_PASSANT_SHIFT = 24;
+    private static final int HALFMOVE_SHIFT = 31;
+    private static final long EN_PASSANT_FLAG = 1L << 47;
+    private static final long CASTLE_FLAG = 1L << 48;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int NIBBLE_MASK = 0xF;
+    private static final int EN_PASSANT_MASK = 0x7F;
+    private static final int HALFMOVE_MASK = 0xFFFF;
+
+    private UndoRecord() {}
+
+    /**
+     * Packs an undo record.
+     *
+     * @param from the from square
+     * @param to the to square
+     * @param moved the piece code of the moving piece
+     * @param captured the piece code of the captured piece, or {@link Bitboard#EMPTY}
+     * @param castlingRights the castling rights before the move
+     * @param enPassantSquare the en passant square before the move, or {@link Bitboard#NO_SQUARE}
+     * @param halfmoveClock the halfmove clock before the move
+     * @param enPassant whether the move captured en passant
+     * @param castle whether the move was a castle
+     * @return the packed record
+     */
+    public static long pack(int from, int to, int moved, int captured, int castlingRights,
+                            int enPassantSquare, int halfmoveClock, boolean enPassant, boolean castle) {
+        return from
+            | ((long) to << TO_SHIFT)
+            | ((long) moved << MOVED_SHIFT)
+            | ((long) (captured + 1) << CAPTURED_SHIFT)
+            | ((long) castlingRights << CASTLING_SHIFT)
+            | ((long) (enPassantSquare + 1) << EN_PASSANT_SHIFT)
+            | ((long) Math.min(halfmoveClock, HALFMOVE_MASK) << HALFMOVE_SHIFT)
+            | (enPassant ? EN_PASSANT_FLAG : 0L)
+            | (castle ? CASTLE_FLAG : 0L);
+    }
+
+    public static int from(long undo) {return (int) undo & SQUARE_MASK;}
+
+    public static int to(long undo) {return (int) (undo >>> TO_SHIFT) & SQUARE_MASK;}
+
+    public static int movedPiece(long undo) {return (int) (undo >>> MOVED_SHIFT) & NIBBLE_MASK;}
+
+    public static int capturedPiece(long undo) {return ((int) (undo >>> CAPTURED_SHIFT) & NIBBLE_MASK) - 1;}
+
+    public static int castlingRights(long undo) {return (int) (undo >>> CASTLING_SHIFT) & NIBBLE_MASK;}
+
+    public static int enPassantSquare(long undo) {return ((int) (undo >>> EN_PASSANT_SHIFT) & EN_PASSANT_MASK) - 1;}
+
+    public static int halfmoveClock(long undo) {return (int) (undo >>> HALFMOVE_SHIFT) & HALFMOVE_MASK;}
+
+    public static boolean isEnPassant(long undo) {return (undo & EN_PASSANT_FLAG) != 0;}
+
+    public static boolean isCastle(long undo) {return (undo & CASTLE_FLAG) != 0;}
+}
@@ -0,0 +1,41 @@
+package chess.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of {@link Bitboard} positions.
+ * <p>
+ * A position's key is the XOR of one key per piece on its square, a key when black is to move, a
+ * key for the current castling rights, and a key for the en passant file when an en passant capture
+ * is actually available. Keys come from a fixed seed so that they are identical on every run.
+ * </p>
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_C0DE_1234_5678L;
+
+    static final long[][] PIECE_SQUARE = new long[Bitboard.PIECE_CODES][64];
+    static final long BLACK_TO_MOVE;
+    static final long[] CASTLING = new long[Bitboard.ALL_CASTLING + 1];
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int sq = 0; sq < squares.length; sq++) squares[sq] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (int i = 0; i < CASTLING.length; i++) CASTLING[i] = random.nextLong();
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) EN_PASSANT_FILE[i] = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    public static long pieceSquare(int piece, int square) {return PIECE_SQUARE[piece][square];}
+
+    public static long castling(int rights) {return CASTLING[rights];}
+
+    public static long enPassantFile(int column) {return EN_PASSANT_FILE[column];}
+
+    public static long blackToMove() {return BLACK_TO_MOVE;}
+}
@@ -0,0 +1,149 @@
+package chess.game.search;
+
+import chess.game.Bitboard;
+
+/**
+ * Static evaluation of a position: material plus piece-square tables, in centipawns from the point
+ * of view of the side to move.
+ * <p>
+ * The tables are written from White's side with a8 first, which is the {@link Bitboard} square
+ * order, so White reads them by square and Black by the square mirrored across the middle of the
+ * board. The king has one table for the middlegame and one for the endgame, blended by how much
+ * material other than pawns is left.
+ * </p>
+ */
+public final class Evaluation {
+
+    /** Piece values in centipawns, indexed by piece type. The king's is never counted. */
+    private static final int[] VALUES = {500, 320, 330, 900, 0, 100};
+
+    /** Phase weights of each piece type, adding up to {@link #MAX_PHASE} in the starting position. */
+    private static final int[] PHASE_WEIGHTS = {2, 1, 1, 4, 0, 0};
+    private static final int MAX_PHASE = 24;
+    private static final int MIRROR = 56;
+
+    private static final int[] ROOK_TABLE = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0,
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50,
+    };
+
+    private static final int[] BISHOP_TABLE = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20,
+    };
+
+    private static final int[] QUEEN_TABLE = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+    };
+
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20,
+    };
+
+    private static final int[] KING_ENDGAME_TABLE = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50,
+    };
+
+    private static final int[] PAWN_TABLE = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+    };
+
+    /** Tables indexed by piece type; the king's is filled in from the two king tables. */
+    private static final int[][] TABLES = {ROOK_TABLE, KNIGHT_TABLE, BISHOP_TABLE, QUEEN_TABLE, null, PAWN_TABLE};
+
+    private Evaluation() {}
+
+    /**
+     * Returns the value of a piece type in centipawns, 0 for the king.
+     */
+    public static int pieceValue(int type) {return VALUES[type];}
+
+    /**
+     * Evaluates a position.
+     *
+     * @param position the position to evaluate
+     * @return the score in centipawns, positive when the side to move is better
+     */
+    public static int evaluate(Bitboard position) {
+        int phase = 0;
+        int score = 0;
+        for (int side = Bitboard.WHITE; side <= Bitboard.BLACK; side++) {
+            int sign = (side == Bitboard.WHITE) ? 1 : -1;
+            int mirror = (side == Bitboard.WHITE) ? 0 : MIRROR;
+            for (int type = 0; type < Bitboard.PIECE_TYPES; type++) {
+                if (type == Bitboard.KING) continue;
+                int[] table = TABLES[type];
+                long pieces = position.getPieces(side, type);
+                phase += PHASE_WEIGHTS[type] * Long.bitCount(pieces);
+                while (pieces != 0) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    score += sign * (VALUES[type] + table[square ^ mirror]);
+                }
+            }
+        }
+
+        // Blend the king tables, the endgame one taking over as the pieces come off
+        phase = Math.min(phase, MAX_PHASE);
+        for (int side = Bitboard.WHITE; side <= Bitboard.BLACK; side++) {
+            int king = position.kingSquare(side);
+            if (king == Bitboard.NO_SQUARE) continue;
+            int square = king ^ ((side == Bitboard.WHITE) ? 0 : MIRROR);
+            int value = (KING_MIDDLEGAME_TABLE[square] * phase + KING_ENDGAME_TABLE[square] * (MAX_PHASE - phase)) / MAX_PHASE;
+            score += (side == Bitboard.WHITE) ? value : -value;
+        }
+
+        return (position.getSideToMove() == Bitboard.WHITE) ? score : -score;
+    }
+}
@@ -0,0 +1,208 @@
+package chess.game.search;
+
+import chess.game.Bitboard;
+import chess.game.LegalMoveGenerator;
+import chess.game.Move;
+import chess.game.MoveList;
+
+/**
+ * Hands out the moves of a node in the order most likely to cut the search off, generating them
+ * in stages so a node that is cut off early never generates the rest:
+ * <ol>
+ *   <li>the hash move, from the principal variation or the transposition table;</li>
+ *   <li>captures and queen promotions that do not lose material by {@link StaticExchange static
+ *   exchange}, most valuable victim first and least valuable attacker next (MVV-LVA);</li>
+ *   <li>the two killer moves of the ply, quiet moves that cut off a sibling node;</li>
+ *   <li>the other quiet moves, by their score in the history table;</li>
+ *   <li>the captures that lose material.</li>
+ * </ol>
+ * <p>
+ * Hash and killer moves come from other positions, so they are only played if they are legal
+ * here, and no move is handed out twice. A picker is reset for each node and belongs to one ply of
+ * one search.
+ * </p>
+ */
+final class MovePicker {
+
+    private static final int HASH = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int GENERATE_QUIETS = 5;
+    private static final int QUIETS = 6;
+    private static final int BAD_CAPTURES = 7;
+    private static final int DONE = 8;
+
+    private final MoveList captures = new MoveList();
+    private final MoveList quiets = new MoveList();
+    private final int[] captureScores = new int[MoveList.DEFAULT_CAPACITY];
+    private final int[] quietScores = new int[MoveList.DEFAULT_CAPACITY];
+    private final MoveList badCaptures = new MoveList();
+    private final StaticExchange exchange;
+    private final int[][] history;
+
+    private Bitboard position;
+    private LegalMoveGenerator generator;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private boolean capturesOnly;
+    private int stage;
+    private int index;
+
+    /**
+     * @param exchange the static exchange evaluator of the search
+     * @param history quiet move scores of the search, indexed by piece code and destination
+     */
+    MovePicker(StaticExchange exchange, int[][] history) {
+        this.exchange = exchange;
+        this.history = history;
+    }
+
+    /**
+     * Starts on the moves of a new node.
+     *
+     * @param position the position of the node, not modified while the picker is used
+     * @param generator a generator for {@code position}
+     * @param hashMove the move to try first, or {@link Move#NONE}
+     * @param firstKiller the newer killer move of the ply, or {@link Move#NONE}
+     * @param secondKiller the older killer move of the ply, or {@link Move#NONE}
+     */
+    void reset(Bitboard position, LegalMoveGenerator generator, int hashMove, int firstKiller, int secondKiller) {
+        this.position = position;
+        this.generator = generator;
+        this.hashMove = generator.isLegal(hashMove) ? hashMove : Move.NONE;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.capturesOnly = false;
+        this.stage = HASH;
+    }
+
+    /**
+     * Starts on the captures and queen promotions of a quiescence node that does not lose
+     * material, leaving out quiet moves and losing captures.
+     */
+    void resetCaptures(Bitboard position, LegalMoveGenerator generator) {
+        this.reset(position, generator, Move.NONE, Move.NONE, Move.NONE);
+        this.capturesOnly = true;
+        this.stage = GENERATE_CAPTURES;
+    }
+
+    /**
+     * Returns the next move, or {@link Move#NONE} once every move has been handed out.
+     */
+    int next() {
+        while (true) {
+            switch (this.stage) {
+                case HASH:
+                    this.stage = GENERATE_CAPTURES;
+                    if (this.hashMove != Move.NONE) return this.hashMove;
+                    break;
+                case GENERATE_CAPTURES:
+                    this.captures.clear();
+                    this.badCaptures.clear();
+                    this.generator.generateCaptures(this.captures);
+                    for (int i = 0; i < this.captures.size(); i++) this.captureScores[i] = this.mvvLva(this.captures.get(i));
+                    this.index = 0;
+                    this.stage = GOOD_CAPTURES;
+                    break;
+                case GOOD_CAPTURES:
+                    while (this.index < this.captures.size()) {
+                        int move = pickNext(this.captures, this.captureScores, this.index++);
+                        if (move == this.hashMove) continue;
+                        if (this.exchange.evaluate(this.position, move) < 0) {
+                            if (!this.capturesOnly) this.badCaptures.add(move);
+                            continue;
+                        }
+                        return move;
+                    }
+                    this.stage = this.capturesOnly ? DONE : FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    this.stage = SECOND_KILLER;
+                    if (this.isKiller(this.firstKiller)) return this.firstKiller;
+                    this.firstKiller = Move.NONE;
+                    break;
+                case SECOND_KILLER:
+                    this.stage = GENERATE_QUIETS;
+                    if (this.secondKiller != this.firstKiller && this.isKiller(this.secondKiller)) return this.secondKiller;
+                    this.secondKiller = Move.NONE;
+                    break;
+                case GENERATE_QUIETS:
+                    this.quiets.clear();
+                    this.generator.generateQuiets(this.quiets);
+                    for (int i = 0; i < this.quiets.size(); i++) {
+                        int move = this.quiets.get(i);
+                        this.quietScores[i] = this.history[this.position.pieceAt(Move.from(move))][Move.to(move)];
+                    }
+                    this.index = 0;
+                    this.stage = QUIETS;
+                    break;
+                case QUIETS:
+                    while (this.index < this.quiets.size()) {
+                        int move = pickNext(this.quiets, this.quietScores, this.index++);
+                        if (move == this.hashMove || move == this.firstKiller || move == this.secondKiller) continue;
+                        return move;
+                    }
+                    this.index = 0;
+                    this.stage = BAD_CAPTURES;
+                    break;
+                case BAD_CAPTURES:
+                    if (this.index < this.badCaptures.size()) return this.badCaptures.get(this.index++);
+                    this.stage = DONE;
+                    break;
+                default:
+                    return Move.NONE;
+            }
+        }
+    }
+
+    /**
+     * Determines if a move counts as quiet, and so is ordered by killers and history rather than
+     * by what it captures.
+     */
+    static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && !(Move.isPromotion(move) && Move.promotion(move) == Bitboard.QUEEN);
+    }
+
+    /**
+     * A killer is only played in its own stage if it is a legal quiet move here that has not
+     * already been handed out as the hash move. One that is not is forgotten for this node, so
+     * the quiet moves stage does not skip it.
+     */
+    private boolean isKiller(int move) {
+        return move != Move.NONE && move != this.hashMove && isQuiet(move) && this.generator.isLegal(move);
+    }
+
+    /**
+     * Scores a capture or promotion by the value it wins, less a fraction of the value of the
+     * moving piece.
+     */
+    private int mvvLva(int move) {
+        int victim = Move.isEnPassant(move) ? Bitboard.PAWN : Bitboard.typeOf(this.position.pieceAt(Move.to(move)));
+        int gain = (victim == Bitboard.EMPTY) ? 0 : Evaluation.pieceValue(victim);
+        if (Move.isPromotion(move)) gain += Evaluation.pieceValue(Move.promotion(move));
+        int attacker = Bitboard.typeOf(this.position.pieceAt(Move.from(move)));
+        return 16 * gain - Evaluation.pieceValue(attacker) / 16;
+    }
+
+    /**
+     * Swaps the highest scored move at or after {@code index} into {@code index} and returns it.
+     */
+    private static int pickNext(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+}
@@ -0,0 +1,223 @@
+package chess.game.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import chess.game.Bitboard;
+import chess.game.Chessboard;
+import chess.game.Fen;
+import chess.game.Perft;
+
+/**
+ * Runs a {@link Search} on several cores by Lazy SMP.
+ * <p>
+ * Every thread searches the whole tree from the same root with its own position and move lists,
+ * and they share nothing but one {@link TranspositionTable}. The main thread runs on the caller
+ * and decides when to stop; helper threads start at a depth of 1 or 2 by turns, so they spread
+ * over two iterations and fill the table with results the main thread would only reach later.
+ * When the main thread stops, so do the helpers, and the main thread's result is returned with
+ * the nodes and cutoffs of every thread added up.
+ * </p>
+ * <p>
+ * Node limits apply to the main thread alone. A parallel search owns a pool of helper threads,
+ * which {@link #close()} shuts down.
+ * </p>
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    private static final int DEFAULT_TABLE_MEGABYTES = 64;
+    private static final int DEFAULT_DEPTH = 7;
+    private static final int DEFAULT_MILLIS = 1000;
+
+    private final Search[] searches;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+
+    /**
+     * Creates a search on {@code threads} threads sharing {@code table}.
+     *
+     * @param threads the number of threads, the caller's included, at least 1
+     * @param table the table every thread shares
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be at least 1.");
+        this.table = table;
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) this.searches[i] = new Search(table);
+        this.helpers = (threads == 1) ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a search on {@code threads} threads with a table of its own.
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    public int getThreads() {return this.searches.length;}
+
+    public TranspositionTable getTable() {return this.table;}
+
+    /**
+     * Sets a listener that receives the main thread's result after each iteration it completes,
+     * or {@code null} for none.
+     */
+    public void setListener(Consumer<SearchResult> listener) {this.searches[0].setListener(listener);}
+
+    /**
+     * Asks every thread of a running search to stop as soon as it can.
+     */
+    public void stop() {
+        for (Search search : this.searches) search.stop();
+    }
+
+    /**
+     * Searches the current position of a game on every thread. Positions from earlier in the game
+     * count towards repetitions.
+     *
+     * @param board the game, which is not modified
+     * @param limits when to stop
+     * @return the main thread's result, with the nodes of all threads
+     */
+    public SearchResult search(Chessboard board, SearchLimits limits) {
+        return this.search(board.getPosition(), Search.gameKeys(board), limits);
+    }
+
+    /**
+     * Searches a position with no game before it on every thread.
+     *
+     * @param position the position to search, which is not modified
+     * @param limits when to stop
+     * @return the main thread's result, with the nodes of all threads
+     */
+    public SearchResult search(Bitboard position, SearchLimits limits) {
+        return this.search(position, new long[] {position.getKey()}, limits);
+    }
+
+    private SearchResult search(Bitboard root, long[] gameKeys, SearchLimits limits) {
+        long start = System.nanoTime();
+        this.table.newSearch();
+        for (Search search : this.searches) search.clearStop();
+
+        // Helpers go on until the main thread is done, or out of time
+        SearchLimits helperLimits = new SearchLimits(Search.MAX_DEPTH, 0L, limits.getMillis());
+        List<Future<?>> running = new ArrayList<>(this.searches.length - 1);
+        for (int i = 1; i < this.searches.length; i++) {
+            Search helper = this.searches[i];
+            int firstDepth = 1 + (i & 1);
+            running.add(this.helpers.submit(() -> helper.run(root, gameKeys, helperLimits, firstDepth)));
+        }
+
+        SearchResult main;
+        try {
+            main = this.searches[0].run(root, gameKeys, limits, 1);
+        } finally {
+            this.stop();
+            this.await(running);
+        }
+
+        long nodes = 0L;
+        long cutoffs = 0L;
+        long firstMoveCutoffs = 0L;
+        for (Search search : this.searches) {
+            nodes += search.getNodes();
+            cutoffs += search.getCutoffs();
+            firstMoveCutoffs += search.getFirstMoveCutoffs();
+        }
+        return new SearchResult(main.getPv(), main.getScore(), main.getDepth(), nodes, System.nanoTime() - start,
+            cutoffs, firstMoveCutoffs);
+    }
+
+    private void await(List<Future<?>> running) {
+        boolean interrupted = false;
+        for (Future<?> future : running) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Shuts down the helper threads. The search cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (this.helpers != null) this.helpers.shutdownNow();
+    }
+
+    /**
+     * Measures how Lazy SMP scales over the reference positions at 1, 2, 4 and so on up to
+     * {@code max threads} threads, each thread count starting with an empty table.
+     * <p>
+     * Time to depth is the time each thread count needs to complete {@code depth} on every
+     * position, and its speedup is the single-thread time divided by it. Lazy SMP also gains by
+     * searching wider rather than only faster, which time to depth misses, so the average depth
+     * reached in a fixed time per position is reported too; the strength gain itself can only be
+     * measured by playing games.
+     * </p>
+     * <pre>
+     *   ParallelSearch [depth] [max threads] [millis]
+     * </pre>
+     */
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long millis = (args.length > 2) ? Long.parseLong(args[2]) : DEFAULT_MILLIS;
+
+        Perft.Reference[] references = Perft.Reference.values();
+        // Warm up the JIT so the single-thread baseline is not measured cold
+        try (ParallelSearch warmup = new ParallelSearch(1)) {
+            for (Perft.Reference reference : references) warmup.search(Fen.parse(reference.getFen()), SearchLimits.depth(depth));
+        }
+
+        System.out.printf("Time to depth %d and depth in %d ms over %d positions%n", depth, millis, references.length);
+        System.out.printf("%8s %10s %8s %14s %8s %10s%n", "Threads", "Time (ms)", "Speedup", "Nodes/s", "Scaling", "Depth");
+
+        long singleNanos = 0L;
+        long singleRate = 0L;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long nanos = 0L;
+            long nodes = 0L;
+            int depths = 0;
+            try (ParallelSearch search = new ParallelSearch(threads)) {
+                for (Perft.Reference reference : references) {
+                    search.getTable().clear();
+                    SearchResult result = search.search(Fen.parse(reference.getFen()), SearchLimits.depth(depth));
+                    nanos += result.getNanos();
+                    nodes += result.getNodes();
+                }
+                for (Perft.Reference reference : references) {
+                    search.getTable().clear();
+                    depths += search.search(Fen.parse(reference.getFen()), SearchLimits.time(millis)).getDepth();
+                }
+            }
+
+            long rate = (long) (nodes * 1_000_000_000.0 / Math.max(1L, nanos));
+            if (threads == 1) {
+                singleNanos = nanos;
+                singleRate = rate;
+            }
+            System.out.printf("%8d %10d %7.2fx %,14d %7.2fx %10.1f%n", threads, nanos / 1_000_000,
+                (double) singleNanos / Math.max(1L, nanos), rate, (double) rate / Math.max(1L, singleRate),
+                (double) depths / references.length);
+        }
+    }
+}
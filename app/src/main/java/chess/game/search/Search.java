@@ -0,0 +1,469 @@
+package chess.game.search;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import chess.game.Bitboard;
+import chess.game.Chessboard;
+import chess.game.Fen;
+import chess.game.GameHistory;
+import chess.game.LegalMoveGenerator;
+import chess.game.Move;
+import chess.game.Perft;
+
+/**
+ * Chooses a move by negamax alpha-beta search with iterative deepening.
+ * <p>
+ * Each iteration searches one ply deeper than the last. Moves are played and taken back on a single
+ * private copy of the position with {@link Bitboard#makeMove} and {@link Bitboard#unmakeMove}, and
+ * a {@link MovePicker} allocated once per ply hands them out, so a node costs no board copies. A
+ * position in check is searched one ply deeper.
+ * </p>
+ * <p>
+ * Most cutoffs come early because moves are tried in stages: the previous iteration's principal
+ * variation or the table move, then captures by MVV-LVA, then killer moves, then quiet moves by a
+ * history table, and captures that lose material last. A quiet move that causes a cutoff becomes
+ * a killer of its ply and scores {@code depth * depth} in the history table under its piece and
+ * destination. Killers are cleared for each search and history scores halved, so what was learned
+ * about the last position still counts for a while. How often the first move searched causes the
+ * cutoff is reported in each {@link SearchResult}, as a measure of how good the ordering is.
+ * </p>
+ * <p>
+ * Where the depth runs out, a quiescence search plays on with captures and queen promotions
+ * until the position is quiet, so a capture at the horizon is never scored before the
+ * recapture. The side to move may stand pat on the static evaluation instead of capturing, and
+ * captures that lose material by {@link StaticExchange static exchange} are not searched. In
+ * check, every evasion is searched.
+ * </p>
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, which may be shared with other searches. A
+ * position already searched deep enough is answered from the table, and otherwise its best move
+ * from the table is tried first. A principal variation that a table answer cut short is completed
+ * from the table.
+ * </p>
+ * <p>
+ * The search stops at the first of its {@link SearchLimits}, or when {@link #stop()} is called,
+ * and returns the result of the last iteration it completed. Repetitions of an earlier position,
+ * including those from the game before the root when searching a {@link Chessboard}, the
+ * fifty-move rule and insufficient material score as draws.
+ * </p>
+ * <p>
+ * A search is not thread-safe, but {@link #stop()} may be called from any thread.
+ * </p>
+ */
+public final class Search {
+
+    public static final int MAX_DEPTH = 64;
+    public static final int MAX_PLY = 2 * MAX_DEPTH;
+
+    /** Score of a side that mates on the move, less one per ply it takes to get there. */
+    public static final int MATE = 32_000;
+
+    /** Scores beyond this, either way, are mates. */
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+
+    private static final int INFINITY = MATE + 1;
+    private static final int DRAW = 0;
+    private static final int FIFTY_MOVE_PLIES = 100;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int DEFAULT_MILLIS = 100;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    /** History scores are all halved once one of them passes this, so none can overflow. */
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[Bitboard.PIECE_CODES][64];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private int[] previousPv = new int[0];
+    private boolean followPv;
+
+    private long[] keys = new long[MAX_PLY + 1];
+    private int keyCount;
+
+    private final TranspositionTable table;
+    private final StaticExchange exchange = new StaticExchange();
+    private Bitboard position;
+    private long nodes;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long nodeLimit;
+    private long deadline;
+    private volatile boolean stopped;
+    private Consumer<SearchResult> listener;
+
+    /**
+     * Creates a search with a transposition table of its own.
+     */
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a search that keeps its results in {@code table}.
+     *
+     * @param table the table to use, which may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply <= MAX_PLY; ply++) this.pickers[ply] = new MovePicker(this.exchange, this.history);
+    }
+
+    public TranspositionTable getTable() {return this.table;}
+
+    /**
+     * Sets a listener that receives the result of each completed iteration, or {@code null} for
+     * none. It is called on the searching thread.
+     */
+    public void setListener(Consumer<SearchResult> listener) {this.listener = listener;}
+
+    /**
+     * Asks a running search to stop as soon as it can. The search returns the result of the last
+     * iteration it completed.
+     */
+    public void stop() {this.stopped = true;}
+
+    /**
+     * Searches the current position of a game. Positions from earlier in the game count towards
+     * repetitions.
+     *
+     * @param board the game, which is not modified
+     * @param limits when to stop
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(Chessboard board, SearchLimits limits) {
+        return this.search(board.getPosition(), gameKeys(board), limits);
+    }
+
+    /**
+     * Searches a position with no game before it.
+     *
+     * @param position the position to search, which is not modified
+     * @param limits when to stop
+     * @return the result of the deepest completed iteration
+     */
+    public SearchResult search(Bitboard position, SearchLimits limits) {
+        return this.search(position, new long[] {position.getKey()}, limits);
+    }
+
+    private SearchResult search(Bitboard root, long[] gameKeys, SearchLimits limits) {
+        this.clearStop();
+        this.table.newSearch();
+        return this.run(root, gameKeys, limits, 1);
+    }
+
+    /**
+     * Returns the keys of the positions of a game, from its start to its current position.
+     */
+    static long[] gameKeys(Chessboard board) {
+        GameHistory history = board.getHistory();
+        Bitboard replay = new Bitboard(history.getStart());
+        long[] keys = new long[history.size() + 1];
+        keys[0] = replay.getKey();
+        for (int i = 0; i < history.size(); i++) {
+            replay.makeMove(history.getMove(i));
+            keys[i + 1] = replay.getKey();
+        }
+        return keys;
+    }
+
+    /**
+     * Withdraws any earlier {@link #stop()} request. {@link #run} does not do this itself, so a
+     * stop requested after this call is never lost, even if it comes before the search starts.
+     */
+    void clearStop() {this.stopped = false;}
+
+    /** Nodes visited by the last search, including one still running. */
+    long getNodes() {return this.nodes;}
+
+    /** Beta cutoffs outside the quiescence search in the last search. */
+    long getCutoffs() {return this.cutoffs;}
+
+    /** Those of the {@link #getCutoffs() cutoffs} caused by the first move searched. */
+    long getFirstMoveCutoffs() {return this.firstMoveCutoffs;}
+
+    /**
+     * Runs the iterations, starting at {@code firstDepth}. {@code gameKeys} holds the keys of the
+     * game's positions, ending with the root's.
+     */
+    SearchResult run(Bitboard root, long[] gameKeys, SearchLimits limits, int firstDepth) {
+        long start = System.nanoTime();
+        this.position = new Bitboard(root);
+        this.keys = Arrays.copyOf(gameKeys, gameKeys.length + MAX_PLY + 1);
+        this.keyCount = gameKeys.length;
+        this.nodes = 0L;
+        this.cutoffs = 0L;
+        this.firstMoveCutoffs = 0L;
+        for (int[] plyKillers : this.killers) Arrays.fill(plyKillers, Move.NONE);
+        this.ageHistory();
+        this.nodeLimit = (limits.getNodes() == 0) ? Long.MAX_VALUE : limits.getNodes();
+        this.deadline = (limits.getMillis() == 0) ? Long.MAX_VALUE : start + limits.getMillis() * 1_000_000L;
+        this.previousPv = new int[0];
+
+        SearchResult result = null;
+        for (int depth = firstDepth; depth <= limits.getDepth(); depth++) {
+            this.followPv = true;
+            int score = this.negamax(depth, 0, -INFINITY, INFINITY);
+            if (this.stopped && result != null) break;
+
+            this.previousPv = this.completePv(root, Arrays.copyOf(this.pv[0], this.pvLength[0]));
+            result = new SearchResult(this.previousPv, score, depth, this.nodes, System.nanoTime() - start,
+                this.cutoffs, this.firstMoveCutoffs);
+            if (this.listener != null) this.listener.accept(result);
+            if (this.stopped || this.previousPv.length == 0) break;
+
+            // A mate the search has seen all the way to will not change with more depth
+            if (Math.abs(score) > MATE_BOUND && MATE - Math.abs(score) <= depth) break;
+            // The next iteration takes several times as long as this one, so it would not finish
+            long elapsed = System.nanoTime() - start;
+            if (this.deadline != Long.MAX_VALUE && start + 2 * elapsed > this.deadline) break;
+        }
+        return result;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        this.pvLength[ply] = 0;
+        if ((this.nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && this.isOutOfBudget()) this.stopped = true;
+        if (this.stopped && ply > 0) return DRAW;
+        if (ply > 0 && this.isDraw()) return DRAW;
+
+        boolean inCheck = this.position.isInCheck();
+        if (inCheck) depth++;
+        if (ply >= MAX_PLY) return Evaluation.evaluate(this.position);
+        if (depth <= 0) return this.quiesce(ply, alpha, beta);
+
+        long key = this.position.getKey();
+        long entry = this.table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) return score;
+            }
+        }
+
+        int pvMove = (this.followPv && ply < this.previousPv.length) ? this.previousPv[ply] : Move.NONE;
+        boolean onPv = this.followPv;
+        MovePicker picker = this.pickers[ply];
+        int[] plyKillers = this.killers[ply];
+        picker.reset(this.position, new LegalMoveGenerator(this.position), (pvMove != Move.NONE) ? pvMove : hashMove,
+            plyKillers[0], plyKillers[1]);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        int searched = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            this.followPv = onPv && move == pvMove;
+
+            long undo = this.position.makeMove(move);
+            this.keys[this.keyCount++] = this.position.getKey();
+            this.nodes++;
+            int score = -this.negamax(depth - 1, ply + 1, -beta, -alpha);
+            this.keyCount--;
+            this.position.unmakeMove(undo);
+            searched++;
+
+            if (this.stopped && (ply > 0 || searched > 1)) break;
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    this.updatePv(ply, move);
+                    if (alpha >= beta) {
+                        this.cutoffs++;
+                        if (searched == 1) this.firstMoveCutoffs++;
+                        if (MovePicker.isQuiet(move)) this.rewardQuiet(move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+        this.followPv = false;
+        if (searched == 0) return inCheck ? -MATE + ply : DRAW;
+
+        if (!this.stopped) {
+            int bound = (best >= beta) ? TranspositionTable.LOWER
+                : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+            this.table.store(key, bestMove, toTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    /**
+     * Searches captures and promotions until the position is quiet.
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        this.pvLength[ply] = 0;
+        if ((this.nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && this.isOutOfBudget()) this.stopped = true;
+        if (this.stopped) return DRAW;
+        if (this.position.isInsufficientMaterial()) return DRAW;
+        if (ply >= MAX_PLY) return Evaluation.evaluate(this.position);
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(this.position);
+        boolean inCheck = generator.isInCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluation.evaluate(this.position);
+            if (best >= beta) return best;
+            if (best > alpha) alpha = best;
+        }
+
+        // In check every evasion is searched, otherwise only captures that do not lose material
+        MovePicker picker = this.pickers[ply];
+        if (inCheck) picker.reset(this.position, generator, Move.NONE, Move.NONE, Move.NONE);
+        else picker.resetCaptures(this.position, generator);
+
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            long undo = this.position.makeMove(move);
+            this.keys[this.keyCount++] = this.position.getKey();
+            this.nodes++;
+            int score = -this.quiesce(ply + 1, -beta, -alpha);
+            this.keyCount--;
+            this.position.unmakeMove(undo);
+
+            if (this.stopped) break;
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    this.updatePv(ply, move);
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        if (inCheck && best == -INFINITY && !this.stopped) return -MATE + ply;
+        return best;
+    }
+
+    /**
+     * Converts a mate score from plies to mate from the root to plies to mate from this node, so it
+     * stays right when the position is reached at a different ply.
+     */
+    private static int toTable(int score, int ply) {
+        if (score > MATE_BOUND) return score + ply;
+        if (score < -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE_BOUND) return score - ply;
+        if (score < -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    /**
+     * Determines if the current position is drawn by the fifty-move rule, insufficient material,
+     * or a repeat of a position since the last capture or pawn move.
+     */
+    private boolean isDraw() {
+        int clock = this.position.getHalfmoveClock();
+        if (clock >= FIFTY_MOVE_PLIES || this.position.isInsufficientMaterial()) return true;
+
+        // The same side is to move only every other ply, and no sooner than four plies back
+        long key = this.keys[this.keyCount - 1];
+        int oldest = Math.max(0, this.keyCount - 1 - clock);
+        for (int i = this.keyCount - 5; i >= oldest; i -= 2) {
+            if (this.keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    private boolean isOutOfBudget() {
+        return this.nodes >= this.nodeLimit || System.nanoTime() >= this.deadline;
+    }
+
+    /**
+     * Makes a quiet move that caused a cutoff the first killer of its ply and raises its history
+     * score.
+     */
+    private void rewardQuiet(int move, int ply, int depth) {
+        int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+
+        int[] scores = this.history[this.position.pieceAt(Move.from(move))];
+        scores[Move.to(move)] += depth * depth;
+        if (scores[Move.to(move)] > HISTORY_LIMIT) this.ageHistory();
+    }
+
+    private void ageHistory() {
+        for (int[] scores : this.history) {
+            for (int to = 0; to < scores.length; to++) scores[to] /= 2;
+        }
+    }
+
+    /**
+     * Lengthens a principal variation that a table cutoff ended early with the moves of exact
+     * table entries, for as long as they are legal and no position repeats.
+     */
+    private int[] completePv(Bitboard root, int[] line) {
+        if (line.length == 0) return line;
+        Bitboard replay = new Bitboard(root);
+        for (int move : line) replay.makeMove(move);
+
+        int[] complete = Arrays.copyOf(line, MAX_PLY);
+        int length = line.length;
+        long[] seen = new long[MAX_PLY];
+        while (length < MAX_PLY) {
+            long entry = this.table.probe(replay.getKey());
+            if (entry == TranspositionTable.NO_ENTRY || TranspositionTable.bound(entry) != TranspositionTable.EXACT) break;
+            int move = TranspositionTable.move(entry);
+            if (!new LegalMoveGenerator(replay).isLegal(move)) break;
+
+            seen[length] = replay.getKey();
+            replay.makeMove(move);
+            complete[length++] = move;
+            boolean repeats = false;
+            for (int i = line.length; i < length; i++) repeats |= seen[i] == replay.getKey();
+            if (repeats) break;
+        }
+        return Arrays.copyOf(complete, length);
+    }
+
+    private void updatePv(int ply, int move) {
+        int[] line = this.pv[ply];
+        line[0] = move;
+        System.arraycopy(this.pv[ply + 1], 0, line, 1, this.pvLength[ply + 1]);
+        this.pvLength[ply] = this.pvLength[ply + 1] + 1;
+    }
+
+    /**
+     * Searches the reference positions, or one given position, for a fixed time per position and
+     * prints every iteration.
+     * <pre>
+     *   Search [millis] [fen]
+     * </pre>
+     */
+    public static void main(String[] args) {
+        long millis = (args.length > 0) ? Long.parseLong(args[0]) : DEFAULT_MILLIS;
+        String[] fens;
+        if (args.length > 1) {
+            fens = new String[] {String.join(" ", Arrays.copyOfRange(args, 1, args.length))};
+        } else {
+            Perft.Reference[] references = Perft.Reference.values();
+            fens = new String[references.length];
+            for (int i = 0; i < references.length; i++) fens[i] = references[i].getFen();
+        }
+
+        Search search = new Search();
+        search.setListener(result -> System.out.println("  " + result));
+        int depths = 0;
+        for (String fen : fens) {
+            System.out.println(fen);
+            search.getTable().clear();
+            depths += search.search(Fen.parse(fen), SearchLimits.time(millis)).getDepth();
+            System.out.println("  " + search.getTable());
+        }
+        System.out.printf("Average depth in %d ms: %.1f%n", millis, (double) depths / fens.length);
+    }
+}
@@ -0,0 +1,51 @@
+package chess.game.search;
+
+/**
+ * When a {@link Search} has to stop: after a depth, a number of nodes or an amount of time,
+ * whichever comes first. A node or time limit of 0 means no limit.
+ */
+public final class SearchLimits {
+
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+
+    /**
+     * Creates limits for a search.
+     *
+     * @param depth the deepest iteration to run, from 1 to {@link Search#MAX_DEPTH}
+     * @param nodes the most nodes to visit, or 0 for no limit
+     * @param millis the most milliseconds to think, or 0 for no limit
+     */
+    public SearchLimits(int depth, long nodes, long millis) {
+        if (depth < 1 || depth > Search.MAX_DEPTH)
+            throw new IllegalArgumentException("Depth must be between 1 and " + Search.MAX_DEPTH + ".");
+        if (nodes < 0) throw new IllegalArgumentException("Node limit must not be negative.");
+        if (millis < 0) throw new IllegalArgumentException("Time limit must not be negative.");
+        this.depth = depth;
+        this.nodes = nodes;
+        this.millis = millis;
+    }
+
+    /** Searches to {@code depth} however long that takes. */
+    public static SearchLimits depth(int depth) {return new SearchLimits(depth, 0L, 0L);}
+
+    /** Searches as deep as {@code millis} milliseconds allow. */
+    public static SearchLimits time(long millis) {return new SearchLimits(Search.MAX_DEPTH, 0L, millis);}
+
+    /** Searches as deep as {@code nodes} nodes allow. */
+    public static SearchLimits nodes(long nodes) {return new SearchLimits(Search.MAX_DEPTH, nodes, 0L);}
+
+    public int getDepth() {return this.depth;}
+
+    public long getNodes() {return this.nodes;}
+
+    public long getMillis() {return this.millis;}
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, nodes %s, time %s", this.depth,
+            (this.nodes == 0) ? "unlimited" : String.format("%,d", this.nodes),
+            (this.millis == 0) ? "unlimited" : this.millis + " ms");
+    }
+}
@@ -0,0 +1,94 @@
+package chess.game.search;
+
+import java.util.Arrays;
+
+import chess.game.Move;
+
+/**
+ * The outcome of a search iteration: the best move, its score, the principal variation that leads
+ * to that score, how much work it took, and how well its moves were ordered.
+ */
+public final class SearchResult {
+
+    private final int[] pv;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+    private final long cutoffs;
+    private final long firstMoveCutoffs;
+
+    SearchResult(int[] pv, int score, int depth, long nodes, long nanos, long cutoffs, long firstMoveCutoffs) {
+        this.pv = pv;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+        this.cutoffs = cutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+    }
+
+    /**
+     * Returns the move to play, or {@link Move#NONE} if the side to move has no legal move.
+     */
+    public int getBestMove() {return (this.pv.length > 0) ? this.pv[0] : Move.NONE;}
+
+    /**
+     * Returns the expected line of play from the root, best move first.
+     */
+    public int[] getPv() {return Arrays.copyOf(this.pv, this.pv.length);}
+
+    /**
+     * Returns the score in centipawns from the point of view of the side to move, or a value
+     * beyond {@link Search#MATE_BOUND} for a forced mate.
+     */
+    public int getScore() {return this.score;}
+
+    /** Depth of the last completed iteration. */
+    public int getDepth() {return this.depth;}
+
+    public long getNodes() {return this.nodes;}
+
+    public long getNanos() {return this.nanos;}
+
+    public long getNodesPerSecond() {
+        return (this.nanos == 0) ? 0 : (long) (this.nodes * 1_000_000_000.0 / this.nanos);
+    }
+
+    /** Beta cutoffs outside the quiescence search. */
+    public long getCutoffs() {return this.cutoffs;}
+
+    /** Beta cutoffs caused by the first move searched at their node. */
+    public long getFirstMoveCutoffs() {return this.firstMoveCutoffs;}
+
+    /**
+     * Returns the share of cutoffs caused by the first move searched, from 0 to 1, or 0 if there
+     * were none. The better the moves are ordered, the closer it gets to 1.
+     */
+    public double getFirstMoveCutoffRate() {
+        return (this.cutoffs == 0) ? 0.0 : (double) this.firstMoveCutoffs / this.cutoffs;
+    }
+
+    public boolean isMate() {return Math.abs(this.score) > Search.MATE_BOUND;}
+
+    /**
+     * Returns the number of moves to mate, negative when the side to move is the one being mated.
+     *
+     * @throws IllegalStateException if the score is not a mate score
+     */
+    public int getMateIn() {
+        if (!this.isMate()) throw new IllegalStateException("Not a mate score: " + this.score);
+        int plies = Search.MATE - Math.abs(this.score);
+        return (this.score > 0) ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("depth %d score %s nodes %,d nps %,d time %d ms first cutoff %.1f%% pv",
+            this.depth, this.isMate() ? "mate " + this.getMateIn() : "cp " + this.score,
+            this.nodes, this.getNodesPerSecond(), this.nanos / 1_000_000, 100 * this.getFirstMoveCutoffRate()));
+        for (int move : this.pv) builder.append(' ').append(Move.toString(move));
+        return builder.toString();
+    }
+}
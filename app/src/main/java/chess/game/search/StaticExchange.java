@@ -0,0 +1,92 @@
+package chess.game.search;
+
+import chess.game.Bitboard;
+import chess.game.Move;
+
+/**
+ * Static exchange evaluation (SEE): the material a capture wins or loses once both sides have
+ * recaptured on its square for as long as it pays them.
+ * <p>
+ * Each side recaptures with its least valuable attacker. Attackers come from
+ * {@link Bitboard#attackersTo} with the pieces that have already captured taken out of the
+ * occupancy, so a rook or bishop behind another slider joins in as soon as the one in front has
+ * gone. A king only recaptures when the other side has nothing left to take it with.
+ * </p>
+ * <p>
+ * The swap list is a buffer owned by the instance, so an evaluation allocates nothing. An instance
+ * is not thread-safe; each search thread keeps its own.
+ * </p>
+ */
+public final class StaticExchange {
+
+    /** Least valuable first, the order in which attackers recapture. */
+    private static final int[] ATTACKER_ORDER = {
+        Bitboard.PAWN, Bitboard.KNIGHT, Bitboard.BISHOP, Bitboard.ROOK, Bitboard.QUEEN, Bitboard.KING
+    };
+    private static final int KING_VALUE = 20_000;
+    private static final int MAX_PIECES = 32;
+
+    /** The first capture, then one entry per piece that could recapture. */
+    private final int[] gain = new int[MAX_PIECES + 1];
+
+    /**
+     * Evaluates a capture, promotion or quiet move. A quiet move scores 0 unless the piece can be
+     * taken on its new square.
+     *
+     * @param position the position the move is played in, which is not modified
+     * @param move a legal {@link Move}-encoded move
+     * @return the material the moving side ends up with, in centipawns
+     */
+    public int evaluate(Bitboard position, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int side = Bitboard.sideOf(position.pieceAt(from));
+        long occupied = position.getOccupied();
+
+        int captured = position.pieceAt(to);
+        int depth = 0;
+        this.gain[0] = (captured == Bitboard.EMPTY) ? 0 : value(Bitboard.typeOf(captured));
+        int onSquare = value(Bitboard.typeOf(position.pieceAt(from)));
+        if (Move.isEnPassant(move)) {
+            this.gain[0] = value(Bitboard.PAWN);
+            occupied ^= 1L << (to + ((side == Bitboard.WHITE) ? 8 : -8));
+        }
+        if (Move.isPromotion(move)) {
+            onSquare = value(Move.promotion(move));
+            this.gain[0] += onSquare - value(Bitboard.PAWN);
+        }
+
+        long fromSet = 1L << from;
+        while (true) {
+            // What the last capturer stands to win if it is taken in turn
+            depth++;
+            this.gain[depth] = onSquare - this.gain[depth - 1];
+
+            occupied ^= fromSet;
+            side ^= 1;
+            long attackers = (position.attackersTo(to, Bitboard.WHITE, occupied)
+                | position.attackersTo(to, Bitboard.BLACK, occupied)) & occupied;
+            long own = attackers & position.getOccupancy(side);
+            if (own == 0) break;
+
+            fromSet = 0L;
+            for (int type : ATTACKER_ORDER) {
+                long pieces = own & position.getPieces(side, type);
+                if (pieces == 0) continue;
+                if (type == Bitboard.KING && (attackers & position.getOccupancy(side ^ 1)) != 0) break;
+                fromSet = pieces & -pieces;
+                onSquare = value(type);
+                break;
+            }
+            if (fromSet == 0) break;
+        }
+
+        // Each side stops capturing once going on would lose it material
+        while (--depth > 0) this.gain[depth - 1] = -Math.max(-this.gain[depth - 1], this.gain[depth]);
+        return this.gain[0];
+    }
+
+    private static int value(int type) {
+        return (type == Bitboard.KING) ? KING_VALUE : Evaluation.pieceValue(type);
+    }
+}
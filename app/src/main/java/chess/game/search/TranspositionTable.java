@@ -0,0 +1,198 @@
+package chess.game.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import chess.game.Move;
+
+/**
+ * A fixed-size, lock-free table of search results keyed by {@link chess.game.Zobrist} position
+ * key, shared by every thread searching the same game.
+ * <p>
+ * Entries live in a flat {@code long[]} as pairs of {@code (key ^ data, data)}, the same scheme as
+ * {@link chess.game.PerftCache}: an entry is only trusted when XOR-ing its two words gives back the
+ * probed key, so an entry torn by two threads writing at once reads as a miss. {@code data} packs,
+ * from the least significant bit:
+ * </p>
+ * <ul>
+ *   <li>bits 0-17: the best move, or {@link Move#NONE}</li>
+ *   <li>bits 18-33: the score, offset to be unsigned</li>
+ *   <li>bits 34-41: the remaining depth</li>
+ *   <li>bits 42-43: whether the score is {@link #EXACT}, a {@link #LOWER} or an {@link #UPPER} bound</li>
+ *   <li>bits 44-51: the generation of the search that stored it</li>
+ * </ul>
+ * <p>
+ * A bucket of four entries fills one 64-byte cache line. A store overwrites the entry with the same
+ * key if there is one, and otherwise the entry that is least worth keeping: shallow entries, and
+ * entries left over from earlier searches, go first.
+ * </p>
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    /** What {@link #probe} returns on a miss. No stored entry has this value. */
+    public static final long NO_ENTRY = 0L;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = BUCKET_ENTRIES * ENTRY_LONGS;
+
+    private static final int MOVE_BITS = 18;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int SCORE_OFFSET = 1 << 15;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + 16;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int GENERATION_SHIFT = BOUND_SHIFT + 2;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+    private static final long SCORE_MASK = 0xFFFFL;
+    private static final long DEPTH_MASK = 0xFFL;
+    private static final long BOUND_MASK = 0x3L;
+    private static final int GENERATION_MASK = 0xFF;
+
+    /** Each search an entry is behind the current one costs it this many plies of depth. */
+    private static final int AGE_PENALTY = 8;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a table using at most {@code megabytes} of memory, rounded down to a power of two
+     * number of buckets.
+     *
+     * @param megabytes the memory budget, at least 1
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("Table size must be at least 1 MB.");
+
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (BUCKET_LONGS * Long.BYTES));
+        while (buckets * BUCKET_LONGS > Integer.MAX_VALUE - 8) buckets >>= 1;
+        this.table = new long[(int) buckets * BUCKET_LONGS];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Returns the entry stored for a position, or {@link #NO_ENTRY} if there is none. Read its
+     * fields with {@link #move}, {@link #score}, {@link #depth} and {@link #bound}.
+     *
+     * @param key the position's Zobrist key
+     * @return the entry's data, or {@link #NO_ENTRY}
+     */
+    public long probe(long key) {
+        int bucket = this.bucketOf(key);
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = this.table[i + 1];
+            if ((this.table[i] ^ data) == key && data != NO_ENTRY) {
+                this.hits.increment();
+                return data;
+            }
+        }
+        this.misses.increment();
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores a search result for a position.
+     *
+     * @param key the position's Zobrist key
+     * @param move the best move found, or {@link Move#NONE}
+     * @param score the score, between -32767 and 32767
+     * @param depth the remaining depth searched, from 0 to 255
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int generation = this.generation;
+        long data = (move & MOVE_MASK)
+            | ((long) (score + SCORE_OFFSET) & SCORE_MASK) << SCORE_SHIFT
+            | ((long) depth & DEPTH_MASK) << DEPTH_SHIFT
+            | ((long) bound & BOUND_MASK) << BOUND_SHIFT
+            | ((long) generation) << GENERATION_SHIFT;
+
+        int bucket = this.bucketOf(key);
+        int replace = bucket;
+        int worth = Integer.MAX_VALUE;
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long old = this.table[i + 1];
+            if ((this.table[i] ^ old) == key) {
+                // Keep the old move when the new result has none
+                if (move == Move.NONE) data |= old & MOVE_MASK;
+                replace = i;
+                break;
+            }
+            int age = (generation - generationOf(old)) & GENERATION_MASK;
+            int entryWorth = (old == NO_ENTRY) ? Integer.MIN_VALUE : depth(old) - AGE_PENALTY * age;
+            if (entryWorth < worth) {
+                worth = entryWorth;
+                replace = i;
+            }
+        }
+        this.table[replace] = key ^ data;
+        this.table[replace + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier ones are replaced first.
+     */
+    public void newSearch() {this.generation = (this.generation + 1) & GENERATION_MASK;}
+
+    public static int move(long entry) {return (int) (entry & MOVE_MASK);}
+
+    public static int score(long entry) {return (int) ((entry >>> SCORE_SHIFT) & SCORE_MASK) - SCORE_OFFSET;}
+
+    public static int depth(long entry) {return (int) ((entry >>> DEPTH_SHIFT) & DEPTH_MASK);}
+
+    public static int bound(long entry) {return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);}
+
+    private static int generationOf(long entry) {return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;}
+
+    private int bucketOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & this.bucketMask) * BUCKET_LONGS;
+    }
+
+    public long getHits() {return this.hits.sum();}
+
+    public long getMisses() {return this.misses.sum();}
+
+    public double getHitRate() {
+        long hits = this.getHits();
+        long probes = hits + this.getMisses();
+        return (probes == 0) ? 0.0 : (double) hits / probes;
+    }
+
+    public int getSizeMegabytes() {return (int) (((long) this.table.length * Long.BYTES) >> 20);}
+
+    /**
+     * Returns the share of entries in the first thousand buckets stored by the current search, in
+     * permille.
+     */
+    public int getUsage() {
+        int sampled = Math.min(this.table.length, 1000 * BUCKET_LONGS);
+        int used = 0;
+        for (int i = 0; i < sampled; i += ENTRY_LONGS) {
+            long data = this.table[i + 1];
+            if (data != NO_ENTRY && generationOf(data) == this.generation) used++;
+        }
+        return used * 1000 / (sampled / ENTRY_LONGS);
+    }
+
+    /**
+     * Empties the table and resets its statistics, e.g. for a new game.
+     */
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.generation = 0;
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Table: %d MB, %,d hits, %,d misses (%.1f%% hit rate), %d permille used",
+            this.getSizeMegabytes(), this.getHits(), this.getMisses(), 100 * this.getHitRate(), this.getUsage());
+    }
+}
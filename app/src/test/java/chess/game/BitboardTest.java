@@ -0,0 +1,233 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardTest {
+    private Chessboard chessboard = new Chessboard();
+    private Bitboard position = chessboard.getPosition();
+
+    @Test
+    public void testStartingPositionOccupancy() {
+        assertEquals(16, Long.bitCount(position.getOccupancy(Bitboard.WHITE)));
+        assertEquals(16, Long.bitCount(position.getOccupancy(Bitboard.BLACK)));
+        assertEquals(0xFFFF00000000FFFFL, position.getOccupied());
+        assertEquals(Bitboard.ALL_CASTLING, position.getCastlingRights());
+        assertEquals(Bitboard.NO_SQUARE, position.getEnPassantSquare());
+        assertEquals(Bitboard.square(7, 4), position.kingSquare(Bitboard.WHITE));
+        assertEquals(Bitboard.square(0, 4), position.kingSquare(Bitboard.BLACK));
+    }
+
+    @Test
+    public void testPieceViewMatchesPosition() {
+        Piece[][] board = position.toPieces();
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                int code = position.pieceAt(Bitboard.square(r, c));
+                if (code == Bitboard.EMPTY) {
+                    assertNull(board[r][c]);
+                } else {
+                    assertEquals(code, Bitboard.pieceCode(board[r][c]));
+                    assertEquals(new Position(r, c), board[r][c].getPosition());
+                }
+            }
+        }
+        assertSame(board, position.toPieces(), "View should be cached until the position changes");
+    }
+
+    @Test
+    public void testKnightAndKingAttacks() {
+        // Knight in the corner a8 attacks b6 and c7
+        assertEquals((1L << Bitboard.square(2, 1)) | (1L << Bitboard.square(1, 2)), Knight.attacks(0));
+        assertEquals(8, Long.bitCount(Knight.attacks(Bitboard.square(4, 4))));
+        assertEquals(3, Long.bitCount(King.attacks(Bitboard.square(7, 7))));
+        assertEquals(8, Long.bitCount(King.attacks(Bitboard.square(4, 4))));
+    }
+
+    @Test
+    public void testSlidingAttacksStopAtBlockers() {
+        int d4 = Bitboard.square(4, 3);
+        assertEquals(14, Long.bitCount(Rook.attacks(d4, 0L)));
+        assertEquals(13, Long.bitCount(Bishop.attacks(d4, 0L)));
+
+        long blocker = 1L << Bitboard.square(4, 5);
+        long attacks = Rook.attacks(d4, blocker);
+        assertTrue((attacks & blocker) != 0, "Blocker square should be attacked");
+        assertEquals(0L, attacks & (1L << Bitboard.square(4, 6)), "Squares behind the blocker should not be attacked");
+    }
+
+    @Test
+    public void testStartingPositionLegalMoves() {
+        int moves = 0;
+        long own = position.getOccupancy(Bitboard.WHITE);
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+            moves += Long.bitCount(MoveValidator.legalTargets(position, from));
+        }
+        assertEquals(20, moves);
+    }
+
+    @Test
+    public void testEnPassantSquareAndView() {
+        assertTrue(chessboard.tryMove(new Position(6, 4), new Position(4, 4)));
+        assertEquals(Bitboard.square(5, 4), position.getEnPassantSquare());
+        assertTrue(chessboard.tryMove(new Position(1, 0), new Position(2, 0)));
+        assertTrue(chessboard.tryMove(new Position(4, 4), new Position(3, 4)));
+        assertTrue(chessboard.tryMove(new Position(1, 3), new Position(3, 3)));
+
+        // The view reflects the pawn that can be taken en passant
+        Piece[][] board = position.toPieces();
+        assertTrue(((Pawn) board[3][4]).isPseudoLegalMove(new Position(2, 3), new MoveContext(position)));
+        assertEquals(position.getEnPassantSquare(),
+            Bitboard.fromPieces(board, Color.White, position.getFullmoveNumber()).getEnPassantSquare());
+
+        assertTrue(chessboard.tryMove(new Position(3, 4), new Position(2, 3)));
+        assertEquals(Bitboard.EMPTY, position.pieceAt(Bitboard.square(3, 3)), "Captured pawn should be removed");
+    }
+
+    @Test
+    public void testCastlingMovesRookAndClearsRights() {
+        int[][] moves = {{6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2}, {7, 5, 4, 2}, {0, 6, 2, 5}};
+        for (int[] m : moves) assertTrue(chessboard.tryMove(new Position(m[0], m[1]), new Position(m[2], m[3])));
+
+        assertTrue(chessboard.tryMove(new Position(7, 4), new Position(7, 6)));
+        assertEquals(Bitboard.pieceCode(Bitboard.WHITE, Bitboard.ROOK), position.pieceAt(Bitboard.square(7, 5)));
+        assertEquals(Bitboard.EMPTY, position.pieceAt(Bitboard.square(7, 7)));
+        assertEquals(Bitboard.BLACK_KINGSIDE | Bitboard.BLACK_QUEENSIDE, position.getCastlingRights());
+        assertTrue(((King) position.toPieces()[7][6]).hasMoved());
+    }
+
+    @Test
+    public void testCheckmateEndsGame() {
+        // Fool's mate
+        int[][] moves = {{6, 5, 5, 5}, {1, 4, 3, 4}, {6, 6, 4, 6}, {0, 3, 4, 7}};
+        for (int[] m : moves) assertTrue(chessboard.tryMove(new Position(m[0], m[1]), new Position(m[2], m[3])));
+
+        assertEquals(GameState.blackWon, chessboard.getGameState());
+        assertNotNull(chessboard.isInCheck());
+        assertFalse(chessboard.tryMove(new Position(6, 0), new Position(5, 0)));
+    }
+
+    @Test
+    public void testMoveLeavingKingInCheckIsRejected() {
+        int[][] moves = {{6, 4, 4, 4}, {1, 4, 3, 4}, {7, 3, 3, 7}};
+        for (int[] m : moves) assertTrue(chessboard.tryMove(new Position(m[0], m[1]), new Position(m[2], m[3])));
+
+        // The f-pawn shields the black king from the queen on the h5-e8 diagonal
+        assertFalse(MoveValidator.validateMove(position, Bitboard.square(1, 5), Bitboard.square(2, 5)));
+        assertFalse(chessboard.tryMove(new Position(1, 5), new Position(2, 5)));
+        assertTrue(chessboard.tryMove(new Position(1, 6), new Position(2, 6)));
+    }
+
+    @Test
+    public void testMakeUnmakeRestoresPosition() {
+        // Reach a position with castling, en passant and captures available for both sides
+        int[][] moves = {{6, 4, 4, 4}, {0, 1, 2, 2}, {7, 5, 4, 2}, {0, 6, 2, 5}, {7, 6, 5, 5}, {1, 0, 2, 0}, {4, 4, 3, 4}, {1, 3, 3, 3}};
+        for (int[] m : moves) assertTrue(chessboard.tryMove(new Position(m[0], m[1]), new Position(m[2], m[3])));
+        assertEquals(Bitboard.square(2, 3), position.getEnPassantSquare());
+
+        assertMakeUnmake(position, 3);
+    }
+
+    private void assertMakeUnmake(Bitboard position, int depth) {
+        if (depth == 0) return;
+
+        Bitboard before = new Bitboard(position);
+        long own = position.getOccupancy(position.getSideToMove());
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+            long targets = MoveValidator.legalTargets(position, from);
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                long undo = position.makeMove(from, to, Bitboard.KNIGHT);
+                assertFalse(position.isInCheck(position.getSideToMove() ^ 1));
+                assertEquals(position.computeKey(), position.getKey(), "Incremental key is out of date");
+                assertPieceListsMatch(position);
+                assertMakeUnmake(position, depth - 1);
+                position.unmakeMove(undo);
+                assertEquals(before, position, "Position differs after unmaking " + from + "-" + to);
+            }
+        }
+    }
+
+    private void assertPieceListsMatch(Bitboard position) {
+        for (int side = Bitboard.WHITE; side <= Bitboard.BLACK; side++) {
+            long listed = 0L;
+            for (int i = 0; i < position.getPieceCount(side); i++) listed |= 1L << position.getPieceSquare(side, i);
+            assertEquals(position.getOccupancy(side), listed, "Piece list is out of date");
+            assertEquals(Long.bitCount(listed), position.getPieceCount(side));
+            assertEquals(Long.numberOfTrailingZeros(position.getPieces(side, Bitboard.KING)), position.kingSquare(side));
+        }
+    }
+
+    @Test
+    public void testPieceListsFollowCastlingAndPromotion() {
+        Chessboard board = new Chessboard(Bitboard.fromFen("r3k2r/6P1/8/8/8/8/8/R3K2R w KQkq - 0 1"));
+        assertTrue(board.tryMove(new Position(7, 4), new Position(7, 6)));
+        assertTrue(board.tryMove(new Position(0, 4), new Position(0, 2)));
+        assertTrue(board.tryMove(new Position(1, 6), new Position(0, 7)));
+        assertPieceListsMatch(board.getPosition());
+
+        Piece[][] view = board.getBoard();
+        assertEquals(new Position(7, 6), board.getKing(view, Color.White).getPosition());
+        assertEquals(new Position(0, 2), board.getKing(view, Color.Black).getPosition());
+        assertEquals(4, board.getColorPieces(view, Color.White).size());
+        assertEquals(2, board.getColorPieces(view, Color.Black).size());
+        assertTrue(board.getColorPieces(view, Color.White).stream().anyMatch(p -> p instanceof Queen));
+
+        // Any other board is scanned
+        Piece[][] empty = new Piece[8][8];
+        assertNull(board.getKing(empty, Color.White));
+        assertTrue(board.getColorPieces(empty, Color.Black).isEmpty());
+
+        // A hypothetical board with an extra piece is scanned too, not read from the piece lists
+        Piece[][] extra = new Piece[8][8];
+        for (int r = 0; r < 8; r++) extra[r] = view[r].clone();
+        extra[4][4] = PieceFactory.create(PieceBehaviors.Title.Q, new Position(4, 4), Color.White);
+        assertEquals(5, board.getColorPieces(extra, Color.White).size());
+        assertEquals(4, board.getColorPieces(view, Color.White).size());
+    }
+
+    @Test
+    public void testKeyIdentifiesTransposedPositions() {
+        long startKey = chessboard.getKey();
+        assertEquals(position.computeKey(), startKey);
+
+        // Knights out and back again reach the starting position
+        int[][] moves = {{7, 6, 5, 5}, {0, 6, 2, 5}, {5, 5, 7, 6}, {2, 5, 0, 6}};
+        for (int[] m : moves) {
+            long before = chessboard.getKey();
+            assertTrue(chessboard.tryMove(new Position(m[0], m[1]), new Position(m[2], m[3])));
+            assertNotEquals(before, chessboard.getKey());
+        }
+        assertEquals(startKey, chessboard.getKey());
+        assertEquals(startKey, new MoveContext(position).getKey());
+    }
+
+    @Test
+    public void testKeyOnlyHashesUsableEnPassantSquare() {
+        assertTrue(chessboard.tryMove(new Position(6, 4), new Position(4, 4)));
+        assertNotEquals(Bitboard.NO_SQUARE, position.getEnPassantSquare());
+        assertEquals(position.getKey(), withoutEnPassant(position).getKey(), "No black pawn can capture on e3");
+
+        int[][] moves = {{1, 0, 2, 0}, {4, 4, 3, 4}, {1, 3, 3, 3}};
+        for (int[] m : moves) assertTrue(chessboard.tryMove(new Position(m[0], m[1]), new Position(m[2], m[3])));
+        assertNotEquals(position.getKey(), withoutEnPassant(position).getKey(), "White can capture on d6");
+    }
+
+    private Bitboard withoutEnPassant(Bitboard position) {
+        Piece[][] board = MoveValidator.cloneBoard(position.toPieces());
+        for (Piece[] row : board) {
+            for (Piece piece : row) {
+                if (piece instanceof Pawn) ((Pawn) piece).setEnPassantTurn(Pawn.DEFAULT_EN_PASSANT_TURN_VALUE);
+            }
+        }
+        Bitboard copy = Bitboard.fromPieces(board, position.getTurnColor(), position.getFullmoveNumber());
+        assertEquals(Bitboard.NO_SQUARE, copy.getEnPassantSquare());
+        return copy;
+    }
+}
@@ -0,0 +1,67 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessboardTest {
+
+    @Test
+    public void testHalfmoveClockFollowsMoves() {
+        Chessboard board = new Chessboard();
+        assertTrue(board.tryMove(new Position(7, 6), new Position(5, 5)));
+        assertTrue(board.tryMove(new Position(0, 6), new Position(2, 5)));
+        assertEquals(2, board.getHalfmoveClock());
+        assertEquals(2, board.getMoveContext().getHalfmoveClock());
+
+        assertTrue(board.tryMove(new Position(6, 4), new Position(4, 4)));
+        assertEquals(0, board.getHalfmoveClock(), "A pawn move resets the clock");
+        assertTrue(board.tryMove(new Position(2, 5), new Position(4, 4)));
+        assertEquals(0, board.getHalfmoveClock(), "A capture resets the clock");
+
+        assertTrue(board.undoMove());
+        assertTrue(board.undoMove());
+        assertEquals(2, board.getHalfmoveClock());
+    }
+
+    @Test
+    public void testFiftyMoveDrawCanBeClaimed() {
+        Chessboard board = new Chessboard(Bitboard.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 98 80"));
+        assertFalse(board.claimDraw());
+
+        assertTrue(board.tryMove(new Position(7, 0), new Position(6, 0)));
+        assertFalse(board.canClaimFiftyMoveDraw());
+        assertTrue(board.tryMove(new Position(0, 4), new Position(0, 3)));
+        assertTrue(board.canClaimFiftyMoveDraw());
+        assertEquals(GameState.ongoing, board.getGameState());
+
+        assertTrue(board.claimDraw());
+        assertEquals(GameState.draw, board.getGameState());
+    }
+
+    @Test
+    public void testSeventyFiveMoveRuleDrawsGame() {
+        Chessboard board = new Chessboard(Bitboard.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 148 80"));
+        assertTrue(board.tryMove(new Position(7, 0), new Position(6, 0)));
+        assertEquals(GameState.ongoing, board.getGameState());
+        assertTrue(board.tryMove(new Position(0, 4), new Position(0, 3)));
+        assertEquals(Chessboard.SEVENTY_FIVE_MOVE_PLIES, board.getHalfmoveClock());
+        assertEquals(GameState.draw, board.getGameState());
+    }
+
+    @Test
+    public void testCheckmateOutranksSeventyFiveMoveRule() {
+        Chessboard board = new Chessboard(Bitboard.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 149 80"));
+        assertTrue(board.tryMove(new Position(7, 0), new Position(0, 0)));
+        assertEquals(GameState.whiteWon, board.getGameState());
+    }
+
+    @Test
+    public void testBoardContextHalfmoveClock() {
+        MoveContext context = new MoveContext(1, new Piece[8][8]);
+        assertEquals(0, context.getHalfmoveClock());
+        context.setHalfmoveClock(12);
+        assertEquals(12, context.getHalfmoveClock());
+        assertThrows(IllegalArgumentException.class, () -> context.setHalfmoveClock(-1));
+    }
+}
@@ -0,0 +1,132 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTest {
+
+    @Test
+    public void testStartingPositionMatchesInitializedBoard() {
+        Chessboard board = new Chessboard();
+        assertEquals(Fen.STARTING_POSITION, board.toFen());
+        assertEquals(board.getPosition(), Fen.parse(Fen.STARTING_POSITION));
+        assertEquals(board.getKey(), new Chessboard(Fen.STARTING_POSITION).getKey());
+    }
+
+    @Test
+    public void testReferencePositionsRoundTrip() {
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Bitboard position = Fen.parse(reference.getFen());
+            assertEquals(reference.getFen(), Fen.toFen(position));
+            assertEquals(position.computeKey(), position.getKey());
+        }
+    }
+
+    @Test
+    public void testExportAfterMoves() {
+        Chessboard board = new Chessboard();
+        assertTrue(board.tryMove(new Position(6, 4), new Position(4, 4)));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", board.toFen());
+        assertTrue(board.tryMove(new Position(0, 6), new Position(2, 5)));
+        assertTrue(board.tryMove(new Position(7, 4), new Position(6, 4)));
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", board.toFen());
+    }
+
+    @Test
+    public void testPieceViewCarriesMoveFlags() {
+        Chessboard board = new Chessboard("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 20");
+        Piece[][] view = board.getBoard();
+        assertFalse(((King) view[7][4]).hasMoved());
+        assertFalse(((Rook) view[7][7]).hasMoved());
+        assertTrue(((Rook) view[7][0]).hasMoved());
+        assertTrue(((Rook) view[0][7]).hasMoved());
+        assertFalse(((Rook) view[0][0]).hasMoved());
+        assertTrue(((Pawn) view[3][4]).isPseudoLegalMove(new Position(2, 3), board.getMoveContext()));
+        assertEquals(20, board.getTurnCount());
+    }
+
+    @Test
+    public void testCastlingRightsWithoutRookAreDropped() {
+        Bitboard position = Fen.parse("4k3/8/8/8/8/8/8/4K2R w KQkq - 0 1");
+        assertEquals(Bitboard.WHITE_KINGSIDE, position.getCastlingRights());
+        assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1", position.toFen());
+    }
+
+    @Test
+    public void testOptionalCounters() {
+        Bitboard position = Fen.parse("4k3/8/8/8/8/8/8/4K3 b - -");
+        assertEquals(0, position.getHalfmoveClock());
+        assertEquals(1, position.getFullmoveNumber());
+        assertEquals(Bitboard.BLACK, position.getSideToMove());
+    }
+
+    @Test
+    public void testInvalidFenIsRejected() {
+        String[] invalid = {
+            "",
+            "4k3/8/8/8/8/8/8 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K4 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4X3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 x - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w KK - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - e4 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - z9 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - - -1 1",
+            "4k3/8/8/8/8/8/8/4K3 w - - 0 0",
+            "4k3/8/8/8/8/8/8/4K3 w - - a 1",
+            "P3k3/8/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - - 0 1 extra"
+        };
+        for (String fen : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen), fen);
+        }
+    }
+
+    @Test
+    public void testEnPassantSquareNeedsThePawnThatPassedIt() {
+        // No black pawn on e5
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1"));
+        // The e6 square or the e7 square the pawn came from is taken
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/4n3/3Pp3/8/8/8/4K3 w - e6 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/4n3/8/3Pp3/8/8/8/4K3 w - e6 0 1"));
+        // No white pawn on d4 for black to take
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/4p3/8/8/4K3 b - d3 0 1"));
+        assertEquals(Bitboard.square(Position.stringToPosition("d3")),
+            Fen.parse("4k3/8/8/8/3Pp3/8/8/4K3 b - d3 0 1").getEnPassantSquare());
+    }
+
+    @Test
+    public void testEachSideNeedsExactlyOneKing() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/4K3 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/K3K3 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("k3k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void testPieceCountsMustBeReachable() {
+        // Sixteen knights would overflow the material signature and read as a bare bishop
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("7k/8/8/NNNNNNNN/NNNNNNNN/8/8/K7 w - - 0 1"));
+        // Seventeen white pieces
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/7N/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"));
+        // Nine pawns
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/7P/8/PPPPPPPP/4K3 w - - 0 1"));
+        // A third knight with all eight pawns still on the board
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/PPPPPPPP/1N2K1NN w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("qqk5/pppppppp/8/8/8/8/8/4K3 w - - 0 1"));
+
+        // Promoted pieces are fine while enough pawns are missing
+        Bitboard promoted = Fen.parse("4k3/8/8/8/8/8/PPPPPPP1/1N2K1NN w - - 0 1");
+        assertEquals(3, Long.bitCount(promoted.getPieces(Bitboard.WHITE, Bitboard.KNIGHT)));
+        Fen.parse("QQQQQQQQ/Q1k5/8/8/8/8/8/4K3 b - - 0 1");
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("QQQQQQQQ/QQk5/8/8/8/8/8/4K3 b - - 0 1"));
+    }
+
+    @Test
+    public void testSideNotToMoveMustNotBeInCheck() {
+        // White to move could take the black king on e8
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4RK2 w - - 0 1"));
+        assertTrue(Fen.parse("4k3/8/8/8/8/8/8/4RK2 b - - 0 1").isInCheck());
+    }
+}
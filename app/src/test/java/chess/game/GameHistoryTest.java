@@ -0,0 +1,86 @@
+package chess.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameHistoryTest {
+
+    /**
+     * Plays random legal moves from the starting position, past a few snapshots, and returns a copy
+     * of every position reached.
+     */
+    private List<Bitboard> playRandomGame(GameHistory history, Bitboard position, int plies) {
+        List<Bitboard> positions = new ArrayList<>();
+        positions.add(new Bitboard(position));
+        Random random = new Random(42);
+        MoveList moves = new MoveList();
+        for (int i = 0; i < plies; i++) {
+            moves.clear();
+            MoveValidator.legalMoves(position, moves);
+            if (moves.isEmpty()) break;
+            history.play(position, moves.get(random.nextInt(moves.size())));
+            positions.add(new Bitboard(position));
+        }
+        return positions;
+    }
+
+    @Test
+    public void testPositionAtRebuildsEveryPly() {
+        Bitboard position = new Chessboard().getPosition();
+        GameHistory history = new GameHistory(position);
+        List<Bitboard> positions = this.playRandomGame(history, position, 3 * GameHistory.SNAPSHOT_INTERVAL + 5);
+
+        assertEquals(positions.size() - 1, history.size());
+        for (int ply = 0; ply <= history.size(); ply++) {
+            Bitboard rebuilt = history.positionAt(ply);
+            assertEquals(positions.get(ply), rebuilt, "Wrong position at ply " + ply);
+            assertEquals(positions.get(ply).getKey(), rebuilt.getKey());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> history.positionAt(history.size() + 1));
+    }
+
+    @Test
+    public void testUndoAcrossSnapshots() {
+        Bitboard position = new Chessboard().getPosition();
+        GameHistory history = new GameHistory(position);
+        List<Bitboard> positions = this.playRandomGame(history, position, 2 * GameHistory.SNAPSHOT_INTERVAL + 3);
+
+        while (!history.isEmpty()) {
+            int ply = history.size();
+            int move = history.getMove(ply - 1);
+            assertEquals(move, history.undo(position));
+            assertEquals(positions.get(ply - 1), position, "Wrong position after taking back ply " + ply);
+            assertEquals(positions.get(ply - 1), history.positionAt(history.size()));
+        }
+        assertThrows(IllegalStateException.class, () -> history.undo(position));
+        assertEquals(history.getStart(), position);
+    }
+
+    @Test
+    public void testChessboardUndoMove() {
+        Chessboard board = new Chessboard();
+        Bitboard start = new Bitboard(board.getPosition());
+        assertFalse(board.undoMove());
+
+        assertTrue(board.tryMove(new Position(6, 5), new Position(5, 5)));
+        assertTrue(board.tryMove(new Position(1, 4), new Position(3, 4)));
+        assertTrue(board.tryMove(new Position(6, 6), new Position(4, 6)));
+        assertTrue(board.tryMove(new Position(0, 3), new Position(4, 7)));
+        assertEquals(GameState.blackWon, board.getGameState());
+        assertEquals(4, board.getHistory().size());
+
+        assertTrue(board.undoMove());
+        assertEquals(GameState.ongoing, board.getGameState());
+        assertEquals(3, board.getMoveHistory().size());
+        assertEquals(board.getPositionAt(3), board.getPosition());
+
+        while (board.undoMove()) {}
+        assertEquals(start, board.getPosition());
+        assertTrue(board.getMoveHistory().isEmpty());
+    }
+}
@@ -102,4 +102,17 @@ public class KnightTest {
 
         assertThrows(IllegalArgumentException.class, () -> Knight.generateHorsePositions(-1, -1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAttackTableMatchesHorsePositions() {
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                long expected = 0L;
+                for (int[] hp : Knight.generateHorsePositions(r, c)) {
+                    if (Position.isValidPosition(hp[0], hp[1])) expected |= 1L << Bitboard.square(hp[0], hp[1]);
+                }
+                assertEquals(expected, Knight.attacks(Bitboard.square(r, c)), "Knight attacks from " + r + "," + c);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveGeneratorTest {
+
+    private static int sq(String name) {
+        return Bitboard.square('8' - name.charAt(1), name.charAt(0) - 'a');
+    }
+
+    private static long bits(String... names) {
+        long bits = 0L;
+        for (String name : names) bits |= 1L << sq(name);
+        return bits;
+    }
+
+    @Test
+    public void testPinnedPieceMovesOnlyAlongPin() {
+        // Bishop on d2 pinned by the b4 bishop; rook on e2 pinned by the e8 rook
+        Bitboard position = Bitboard.fromFen("4r1k1/8/8/8/1b6/8/3BR3/4K3 w - - 0 1");
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+
+        assertEquals(bits("d2", "e2"), generator.getPinned());
+        assertFalse(generator.isInCheck());
+        assertEquals(bits("c3", "b4"), generator.legalTargets(sq("d2")));
+        assertEquals(bits("e3", "e4", "e5", "e6", "e7", "e8"), generator.legalTargets(sq("e2")));
+    }
+
+    @Test
+    public void testSingleCheckMustBeCapturedOrBlocked() {
+        Bitboard position = Bitboard.fromFen("4k3/8/8/8/8/2N5/8/r3K2R w K - 0 1");
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+        assertEquals(bits("a1"), generator.getCheckers());
+        // The knight may only block on b1 or d1, and castling out of check is not allowed
+        assertEquals(bits("b1", "d1"), generator.legalTargets(sq("c3")));
+        assertEquals(0L, generator.legalTargets(sq("h1")));
+        assertEquals(bits("d2", "e2", "f2"), generator.legalTargets(sq("e1")));
+    }
+
+    @Test
+    public void testDoubleCheckLeavesOnlyKingMoves() {
+        Bitboard position = Bitboard.fromFen("4k3/8/8/8/1b6/8/2N5/r3K3 w - - 0 1");
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+
+        // The knight could capture either checker, but not both
+        assertEquals(bits("a1", "b4"), generator.getCheckers());
+        assertEquals(0L, generator.legalTargets(sq("c2")));
+        assertEquals(bits("e2", "f2"), generator.legalTargets(sq("e1")));
+        assertTrue(generator.hasLegalMove());
+    }
+
+    @Test
+    public void testEnPassantCannotExposeKingAlongRank() {
+        // Taking d6 would remove both pawns from the fifth rank and leave the king to the h5 rook
+        Bitboard position = Bitboard.fromFen("8/8/8/K2pP2r/8/8/8/7k w - d6 0 1");
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+
+        assertEquals(0L, generator.getPinned());
+        assertEquals(bits("e6"), generator.legalTargets(sq("e5")));
+    }
+
+    @Test
+    public void testEnPassantCapturesCheckingPawn() {
+        Bitboard position = Bitboard.fromFen("8/8/8/3pP3/4K3/8/8/7k w - d6 0 1");
+        LegalMoveGenerator generator = new LegalMoveGenerator(position);
+
+        assertEquals(bits("d5"), generator.getCheckers());
+        assertEquals(bits("d6"), generator.legalTargets(sq("e5")));
+    }
+
+    @Test
+    public void testCheckmateAndStalemateDetected() {
+        LegalMoveGenerator mate = new LegalMoveGenerator(
+            Bitboard.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3"));
+        assertTrue(mate.isInCheck());
+        assertFalse(mate.hasLegalMove());
+
+        LegalMoveGenerator stalemate = new LegalMoveGenerator(Bitboard.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"));
+        assertFalse(stalemate.isInCheck());
+        assertFalse(stalemate.hasLegalMove());
+    }
+
+    @Test
+    public void testCapturesAndQuietsSplitTheLegalMoves() {
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            LegalMoveGenerator generator = new LegalMoveGenerator(Bitboard.fromFen(reference.getFen()));
+            MoveList all = new MoveList();
+            MoveList captures = new MoveList();
+            MoveList quiets = new MoveList();
+            generator.generate(all);
+            generator.generateCaptures(captures);
+            generator.generateQuiets(quiets);
+            assertEquals(all.size(), captures.size() + quiets.size(), reference.name());
+
+            int expected = 0;
+            for (int i = 0; i < all.size(); i++) {
+                int move = all.get(i);
+                boolean queens = Move.isPromotion(move) && Move.promotion(move) == Bitboard.QUEEN;
+                if (queens || (Move.isCapture(move) && !Move.isPromotion(move))) {
+                    assertTrue(captures.contains(move), reference + " " + Move.toString(move));
+                    expected++;
+                } else {
+                    assertTrue(quiets.contains(move), reference + " " + Move.toString(move));
+                }
+            }
+            assertEquals(expected, captures.size(), reference.name());
+        }
+    }
+
+    @Test
+    public void testIsLegalMatchesGeneratedMoves() {
+        Bitboard start = Bitboard.fromFen(Fen.STARTING_POSITION);
+        LegalMoveGenerator opening = new LegalMoveGenerator(start);
+        assertTrue(opening.isLegal(Move.of(start, sq("g1"), sq("f3"), Bitboard.EMPTY)));
+        assertFalse(opening.isLegal(Move.of(start, sq("g1"), sq("e2"), Bitboard.EMPTY)));
+        assertFalse(opening.isLegal(Move.NONE));
+
+        // A move from another position: the capture flag no longer matches
+        Bitboard other = Bitboard.fromFen("4k3/8/8/8/8/5p2/8/6NK w - - 0 1");
+        assertFalse(opening.isLegal(Move.of(other, sq("g1"), sq("f3"), Bitboard.EMPTY)));
+
+        Bitboard promotion = Bitboard.fromFen("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        LegalMoveGenerator generator = new LegalMoveGenerator(promotion);
+        assertTrue(generator.isLegal(Move.of(promotion, sq("a7"), sq("a8"), Bitboard.KNIGHT)));
+        assertFalse(generator.isLegal(Move.of(promotion, sq("a7"), sq("a8"), Bitboard.EMPTY)));
+
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            LegalMoveGenerator legal = new LegalMoveGenerator(Bitboard.fromFen(reference.getFen()));
+            MoveList all = new MoveList();
+            legal.generate(all);
+            for (int i = 0; i < all.size(); i++) assertTrue(legal.isLegal(all.get(i)), reference.name());
+        }
+    }
+
+    @Test
+    public void testBetweenAndLine() {
+        assertEquals(bits("b2", "c3", "d4"), LegalMoveGenerator.between(sq("a1"), sq("e5")));
+        assertEquals(0L, LegalMoveGenerator.between(sq("a1"), sq("b3")));
+        assertEquals(8, Long.bitCount(LegalMoveGenerator.line(sq("a1"), sq("a4"))));
+        assertEquals(0L, LegalMoveGenerator.line(sq("a1"), sq("b3")));
+    }
+}
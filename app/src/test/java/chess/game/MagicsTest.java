@@ -0,0 +1,54 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+public class MagicsTest {
+
+    SplittableRandom random = new SplittableRandom(42);
+
+    @Test
+    public void testLookupsMatchRayWalks() {
+        for (int square = 0; square < 64; square++) {
+            for (int i = 0; i < 200; i++) {
+                // Sparse and dense boards alike
+                long occupied = (i % 2 == 0) ? random.nextLong() & random.nextLong() : random.nextLong() | random.nextLong();
+                assertEquals(SlidingPieces.slidingAttacks(square, occupied, SlidingPieces.ORTHOGONAL_DIRECTIONS),
+                    Magics.rookAttacks(square, occupied), "Rook attacks from " + Bitboard.squareName(square));
+                assertEquals(SlidingPieces.slidingAttacks(square, occupied, SlidingPieces.DIAGONAL_DIRECTIONS),
+                    Magics.bishopAttacks(square, occupied), "Bishop attacks from " + Bitboard.squareName(square));
+            }
+        }
+    }
+
+    @Test
+    public void testMasksLeaveOutEdges() {
+        int a8 = Bitboard.square(0, 0);
+        assertEquals(12, Long.bitCount(Magics.rookMask(a8)));
+        assertEquals(6, Long.bitCount(Magics.bishopMask(a8)));
+
+        int e4 = Bitboard.square(4, 4);
+        assertEquals(10, Long.bitCount(Magics.rookMask(e4)));
+        assertEquals(9, Long.bitCount(Magics.bishopMask(e4)));
+        assertEquals(0L, Magics.rookMask(e4) & (1L << e4));
+    }
+
+    @Test
+    public void testBlockedRookOnPieceBoard() {
+        Piece[][] board = new Piece[8][8];
+        Rook rook = new Rook(new Position(4, 4), Color.White);
+        board[4][4] = rook;
+        board[4][6] = new DummyPiece(new Position(4, 6), Color.Black);
+        board[2][4] = new DummyPiece(new Position(2, 4), Color.White);
+        MoveContext mContext = new MoveContext(1, board);
+
+        assertTrue(rook.isPseudoLegalMove(new Position(4, 6), mContext));
+        assertFalse(rook.isPseudoLegalMove(new Position(4, 7), mContext));
+        assertFalse(rook.isPseudoLegalMove(new Position(2, 4), mContext));
+        assertTrue(rook.isPseudoLegalMove(new Position(3, 4), mContext));
+        // Two up, four left, two right, three down
+        assertEquals(1 + 4 + 2 + 3, rook.generatePseudoLegalMoves(mContext).size());
+    }
+}
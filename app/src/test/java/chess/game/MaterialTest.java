@@ -0,0 +1,71 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MaterialTest {
+
+    private static boolean isInsufficient(String fen) {
+        return Bitboard.fromFen(fen).isInsufficientMaterial();
+    }
+
+    @Test
+    public void testStartingSignature() {
+        long signature = new Chessboard().getPosition().getMaterialKey();
+        for (int side = Bitboard.WHITE; side <= Bitboard.BLACK; side++) {
+            assertEquals(8, Material.count(signature, side, Bitboard.PAWN));
+            assertEquals(2, Material.count(signature, side, Bitboard.ROOK));
+            assertEquals(1, Material.count(signature, side, Bitboard.QUEEN));
+            assertEquals(1, Material.count(signature, side, Bitboard.KING));
+            assertEquals(1, Material.lightSquareBishops(signature, side));
+            assertEquals(1, Material.darkSquareBishops(signature, side));
+        }
+        assertEquals("KQRRBBNNPPPPPPPPvKQRRBBNNPPPPPPPP", Material.toString(signature));
+    }
+
+    @Test
+    public void testSignatureIgnoresPlacement() {
+        long a = Bitboard.fromFen("4k3/8/8/3r4/8/8/2P5/R3K3 w - - 0 1").getMaterialKey();
+        long b = Bitboard.fromFen("8/1k6/5r2/8/6P1/8/8/4K2R b - - 0 1").getMaterialKey();
+        assertEquals(a, b);
+        assertEquals("KRPvKR", Material.toString(a));
+    }
+
+    @Test
+    public void testSignatureFollowsMakeUnmake() {
+        Bitboard position = Bitboard.fromFen("r3k2r/1P6/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        long before = position.getMaterialKey();
+        long undo = position.makeMove(Bitboard.square(1, 1), Bitboard.square(0, 0), Bitboard.BISHOP);
+        long after = position.getMaterialKey();
+        assertEquals(0, Material.count(after, Bitboard.WHITE, Bitboard.PAWN));
+        assertEquals(1, Material.count(after, Bitboard.BLACK, Bitboard.ROOK));
+        assertEquals(1, Material.lightSquareBishops(after, Bitboard.WHITE), "a8 is a light square");
+
+        position.unmakeMove(undo);
+        assertEquals(before, position.getMaterialKey());
+    }
+
+    @Test
+    public void testInsufficientMaterial() {
+        assertTrue(isInsufficient("4k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+        assertTrue(isInsufficient("4k3/8/8/8/8/8/8/2B1K3 w - - 0 1"));
+        assertTrue(isInsufficient("4k3/8/8/8/8/8/8/1N2K3 w - - 0 1"));
+        assertTrue(isInsufficient("4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1"), "Both bishops on dark squares");
+        assertTrue(isInsufficient("4k3/8/8/8/8/8/8/B1B1K1B1 w - - 0 1"), "Three bishops on dark squares");
+
+        assertFalse(isInsufficient("4k3/8/8/8/8/8/8/2B1KB2 w - - 0 1"), "Bishops on both colors");
+        assertFalse(isInsufficient("4k3/8/8/8/8/8/8/3BKN2 w - - 0 1"));
+        assertFalse(isInsufficient("4kn2/8/8/8/8/8/8/1N2K3 w - - 0 1"));
+        assertFalse(isInsufficient("4kn2/8/8/8/8/8/8/2B1K3 w - - 0 1"));
+        assertFalse(isInsufficient("4k3/8/8/8/8/8/8/R3K3 w - - 0 1"));
+        assertFalse(isInsufficient("4k3/p7/8/8/8/8/8/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void testCapturingLastPawnDrawsGame() {
+        Chessboard board = new Chessboard(Bitboard.fromFen("4k3/8/8/8/8/8/2p5/1B2K3 w - - 0 1"));
+        assertTrue(board.tryMove(new Position(7, 1), new Position(6, 2)));
+        assertEquals(GameState.draw, board.getGameState());
+    }
+}
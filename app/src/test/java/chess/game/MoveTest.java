@@ -0,0 +1,95 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+public class MoveTest {
+
+    private static int sq(String name) {
+        return Bitboard.square('8' - name.charAt(1), name.charAt(0) - 'a');
+    }
+
+    @Test
+    public void testEncodeRoundTrip() {
+        int move = Move.encode(sq("e7"), sq("d8"), Bitboard.KNIGHT, Move.CAPTURE);
+        assertEquals(sq("e7"), Move.from(move));
+        assertEquals(sq("d8"), Move.to(move));
+        assertEquals(Bitboard.KNIGHT, Move.promotion(move));
+        assertTrue(Move.isPromotion(move));
+        assertTrue(Move.isCapture(move));
+        assertFalse(Move.isEnPassant(move));
+        assertFalse(Move.isCastle(move));
+        assertEquals("e7d8n", Move.toString(move));
+
+        int quiet = Move.encode(sq("a8"), sq("h1"), Bitboard.EMPTY, 0);
+        assertEquals(Bitboard.EMPTY, Move.promotion(quiet));
+        assertFalse(Move.isPromotion(quiet));
+        assertEquals("a8h1", Move.toString(quiet));
+        assertNotEquals(Move.NONE, quiet);
+    }
+
+    @Test
+    public void testFlagsReadFromPosition() {
+        Bitboard position = Bitboard.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        assertTrue(Move.isCastle(Move.of(position, sq("e1"), sq("g1"), Bitboard.EMPTY)));
+        assertFalse(Move.isCastle(Move.of(position, sq("e1"), sq("f1"), Bitboard.EMPTY)));
+
+        int enPassant = Move.of(position, sq("e5"), sq("d6"), Bitboard.EMPTY);
+        assertTrue(Move.isEnPassant(enPassant));
+        assertTrue(Move.isCapture(enPassant));
+        assertTrue(Move.isCapture(Move.of(position, sq("a1"), sq("a8"), Bitboard.EMPTY)));
+        assertFalse(Move.isCapture(Move.of(position, sq("e5"), sq("e6"), Bitboard.EMPTY)));
+    }
+
+    @Test
+    public void testMoveListGrowsAndClears() {
+        MoveList moves = new MoveList(2);
+        for (int i = 0; i < 5; i++) moves.add(Move.encode(i, i + 8, Bitboard.EMPTY, 0));
+        assertEquals(5, moves.size());
+        assertEquals(Move.encode(4, 12, Bitboard.EMPTY, 0), moves.get(4));
+        assertTrue(moves.contains(Move.encode(2, 10, Bitboard.EMPTY, 0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> moves.get(5));
+
+        moves.clear();
+        assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    public void testPieceOverloadMatchesOnBothBoards() {
+        Bitboard position = Bitboard.fromFen(Perft.Reference.KIWIPETE.getFen());
+        Piece[][] board = position.toPieces();
+        MoveContext bitboardContext = new MoveContext(position);
+        MoveContext boardContext = new MoveContext(position.getFullmoveNumber(), board);
+
+        for (Piece[] row : board) {
+            for (Piece piece : row) {
+                if (piece == null || piece instanceof King) continue;
+                MoveList fromBitboard = new MoveList();
+                MoveList fromBoard = new MoveList();
+                piece.generatePseudoLegalMoves(bitboardContext, fromBitboard);
+                piece.generatePseudoLegalMoves(boardContext, fromBoard);
+
+                int[] expected = fromBitboard.toArray();
+                int[] actual = fromBoard.toArray();
+                Arrays.sort(expected);
+                Arrays.sort(actual);
+                assertArrayEquals(expected, actual, "Moves of " + piece.getClass().getSimpleName() + " on " + piece.getPosition());
+            }
+        }
+    }
+
+    @Test
+    public void testChessboardSpeaksEncodedMoves() {
+        Chessboard chessboard = new Chessboard(Bitboard.fromFen("8/1P6/8/8/8/8/8/k6K w - - 0 1"));
+        MoveList moves = new MoveList();
+        chessboard.getLegalMoves(moves);
+        // Four promotions and three king moves
+        assertEquals(7, moves.size());
+
+        assertFalse(chessboard.tryMove(Move.encode(sq("b7"), sq("b6"), Bitboard.EMPTY, 0)));
+        assertTrue(chessboard.tryMove(Move.encode(sq("b7"), sq("b8"), Bitboard.KNIGHT, 0)));
+        assertEquals(Bitboard.pieceCode(Bitboard.WHITE, Bitboard.KNIGHT), chessboard.getPosition().pieceAt(sq("b8")));
+    }
+}
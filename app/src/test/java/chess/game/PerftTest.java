@@ -0,0 +1,116 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTest {
+    static final int MAX_TEST_DEPTH = 3;
+
+    @Test
+    public void testReferencePositions() {
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Bitboard position = Bitboard.fromFen(reference.getFen());
+            for (int depth = 1; depth <= MAX_TEST_DEPTH; depth++) {
+                assertEquals(reference.getNodes(depth), Perft.perft(position, depth),
+                    reference + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    public void testStartingPositionDepthFour() {
+        assertEquals(Perft.Reference.INITIAL.getNodes(4), Perft.perft(new Chessboard().getPosition(), 4));
+    }
+
+    @Test
+    public void testDivideSumsToTotalAndRestoresPosition() {
+        Bitboard position = Bitboard.fromFen(Perft.Reference.KIWIPETE.getFen());
+        Bitboard before = new Bitboard(position);
+
+        Perft.Result result = Perft.divide(position, 2);
+        assertEquals(48, result.getMoves().size());
+        assertEquals(Perft.Reference.KIWIPETE.getNodes(2), result.getNodes());
+        assertEquals(result.getNodes(), result.getCounts().stream().mapToLong(Long::longValue).sum());
+        assertTrue(result.getMoves().contains("e1g1"), "Castling should be listed as a root move");
+        assertEquals(before, position);
+    }
+
+    @Test
+    public void testPromotionsAreCountedPerPiece() {
+        Perft.Result result = Perft.divide(Bitboard.fromFen(Perft.Reference.POSITION_5.getFen()), 1);
+        for (String piece : new String[]{"q", "r", "b", "n"}) {
+            assertTrue(result.getMoves().contains("d7c8" + piece), "Missing promotion to " + piece);
+        }
+        assertEquals(Perft.Reference.POSITION_5.getNodes(1), result.getNodes());
+    }
+
+    @Test
+    public void testInvalidFenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Bitboard.fromFen("8/8/8 w - -"));
+        assertThrows(IllegalArgumentException.class, () -> Bitboard.fromFen(Perft.START_FEN.replace(" w ", " x ")));
+        assertThrows(IllegalArgumentException.class, () -> Bitboard.fromFen("rnbqkbnr/ppppXppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+    }
+
+    @Test
+    public void testParallelMatchesReferenceCounts() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Perft.Reference reference : Perft.Reference.values()) {
+                Bitboard position = Bitboard.fromFen(reference.getFen());
+                assertEquals(reference.getNodes(MAX_TEST_DEPTH), ParallelPerft.perft(position, MAX_TEST_DEPTH, pool),
+                    reference + " at depth " + MAX_TEST_DEPTH);
+            }
+
+            Bitboard position = new Chessboard().getPosition();
+            Bitboard before = new Bitboard(position);
+            Perft.Result result = ParallelPerft.divide(position, 4, pool);
+            assertEquals(Perft.Reference.INITIAL.getNodes(4), result.getNodes());
+            assertEquals(Perft.divide(position, 4).getCounts(), result.getCounts());
+            assertEquals(before, position);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCachedCountsMatchReferenceCounts() {
+        PerftCache cache = new PerftCache(1);
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Bitboard position = Bitboard.fromFen(reference.getFen());
+            for (int depth = 1; depth <= MAX_TEST_DEPTH + 1; depth++) {
+                assertEquals(reference.getNodes(depth), Perft.perft(position, depth, cache),
+                    reference + " at depth " + depth);
+            }
+        }
+        assertTrue(cache.getHits() > 0, "Transpositions should hit the cache");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Bitboard position = Bitboard.fromFen(Perft.Reference.KIWIPETE.getFen());
+            assertEquals(Perft.Reference.KIWIPETE.getNodes(4), ParallelPerft.perft(position, 4, pool, cache));
+            cache.clear();
+            assertEquals(0, cache.getHits());
+            assertEquals(Perft.divide(position, 4).getCounts(), ParallelPerft.divide(position, 4, pool, cache).getCounts());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCacheSeparatesDepths() {
+        PerftCache cache = new PerftCache(1);
+        long key = new Chessboard().getKey();
+        assertEquals(-1, cache.probe(key, 3));
+
+        cache.store(key, 3, 8_902L);
+        cache.store(key, 2, 400L);
+        assertEquals(8_902L, cache.probe(key, 3));
+        assertEquals(400L, cache.probe(key, 2));
+        assertEquals(-1, cache.probe(key, 4));
+        assertEquals(1, cache.getSizeMegabytes());
+        assertThrows(IllegalArgumentException.class, () -> new PerftCache(0));
+    }
+}
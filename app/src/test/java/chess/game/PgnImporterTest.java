@@ -0,0 +1,142 @@
+package chess.game;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnImporterTest {
+
+    private static String games(int count) {
+        StringBuilder pgn = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            pgn.append("[Event \"Test\"]\n[Round \"").append(i).append("\"]\n\n");
+            if (i % 7 == 3) pgn.append("1. e4 e5 2. Ke3 *\n\n");
+            else pgn.append("1. e4 {[not a tag]} e5 2. Nf3 Nc6 3. Bb5 a6 1/2-1/2\n\n");
+        }
+        return pgn.toString();
+    }
+
+    private static Path write(String pgn) throws IOException {
+        Path path = Files.createTempFile("import", ".pgn");
+        Files.write(path, pgn.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    @Test
+    public void testGamesArriveInFileOrder() throws IOException {
+        Path path = write(games(200));
+        try {
+            List<PgnGame> expected = new ArrayList<>();
+            try (PgnReader reader = PgnReader.open(path)) {
+                reader.forEachRemaining(expected::add);
+            }
+
+            for (int chunkSize : new int[] {1, 100, 1000, PgnImporter.DEFAULT_CHUNK_SIZE}) {
+                List<PgnGame> games = new ArrayList<>();
+                PgnImporter.Report report = new PgnImporter(3, chunkSize).importFile(path, games::add);
+
+                assertEquals(expected.size(), games.size(), "Chunk size " + chunkSize);
+                assertEquals(expected.size(), report.getGames());
+                assertEquals(200 / 7 + 1, report.getInvalidGames());
+                for (int i = 0; i < games.size(); i++) {
+                    assertEquals(i + 1, games.get(i).getNumber());
+                    assertEquals(String.valueOf(i), games.get(i).getTag("Round"));
+                    assertArrayEquals(expected.get(i).getMoves(), games.get(i).getMoves());
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testBadGameDoesNotAbortTheImport() throws IOException {
+        // A FEN tag with an en passant square no pawn passed over, in the middle of the file
+        String bad = "[Event \"Bad\"]\n[FEN \"4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1\"]\n\n1. dxe6 Kd7 *\n\n";
+        String pgn = games(20) + bad + games(20);
+        Path path = write(pgn);
+        try {
+            List<PgnGame> games = new ArrayList<>();
+            PgnImporter.Report report = new PgnImporter(3, 100).importFile(path, games::add);
+
+            assertTrue(report.getChunks() > 1);
+            assertEquals(41, report.getGames());
+            assertEquals(2 * (20 / 7 + 1) + 1, report.getInvalidGames());
+            PgnGame game = games.get(20);
+            assertEquals("Bad", game.getTag("Event"));
+            assertFalse(game.isValid());
+            assertEquals(String.valueOf(19), games.get(40).getTag("Round"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testNextGameStartSkipsTagSections() throws IOException {
+        String pgn = "[Event \"A\"]\n[Round \"1\"]\n\n1. e4 *\n\n[Event \"B\"]\n\n1. d4 *\n";
+        Path path = write(pgn);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long second = pgn.indexOf("[Event \"B\"]");
+            assertEquals(0, PgnImporter.nextGameStart(channel, 0, size));
+            assertEquals(second, PgnImporter.nextGameStart(channel, 1, size));
+            assertEquals(second, PgnImporter.nextGameStart(channel, pgn.indexOf("[Round"), size), "Round is a tag of game A");
+            assertEquals(second, PgnImporter.nextGameStart(channel, second, size));
+            assertEquals(size, PgnImporter.nextGameStart(channel, second + 1, size));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testWrappedClockCommentsAreNotGameStarts() throws IOException {
+        StringBuilder pgn = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            pgn.append("[Event \"Clock\"]\n[Round \"").append(i).append("\"]\n\n");
+            pgn.append("1. e4 { opening move\n[%clk 0:03:00] } e5 {\n\n[%clk 0:02:59] } 2. Nf3 Nc6 1-0\n\n");
+        }
+        Path path = write(pgn.toString());
+        try {
+            List<PgnGame> expected = new ArrayList<>();
+            try (PgnReader reader = PgnReader.open(path)) {
+                reader.forEachRemaining(expected::add);
+            }
+            assertEquals(30, expected.size());
+
+            for (int chunkSize : new int[] {1, 40, 100, 1000}) {
+                List<PgnGame> games = new ArrayList<>();
+                new PgnImporter(3, chunkSize).importFile(path, games::add);
+                assertEquals(expected.size(), games.size(), "Chunk size " + chunkSize);
+                for (int i = 0; i < games.size(); i++) {
+                    assertTrue(games.get(i).isValid(), games.get(i).toString());
+                    assertEquals(expected.get(i).getTags(), games.get(i).getTags());
+                    assertArrayEquals(expected.get(i).getMoves(), games.get(i).getMoves());
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testEmptyFileAndArguments() throws IOException {
+        Path path = write("");
+        try {
+            PgnImporter.Report report = new PgnImporter(2, 16).importFile(path, game -> fail("No games expected"));
+            assertEquals(0, report.getGames());
+        } finally {
+            Files.delete(path);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PgnImporter(0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new PgnImporter(1, 0));
+    }
+}
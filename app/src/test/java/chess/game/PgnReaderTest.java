@@ -0,0 +1,165 @@
+package chess.game;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnReaderTest {
+
+    private static final String PGN = String.join("\n",
+        "[Event \"Casual \\\"blitz\\\"\"]",
+        "[White \"D\u00fcbel\"]",
+        "[Black \"Someone\"]",
+        "[Result \"0-1\"]",
+        "",
+        "1. f3 {weak} e5 2. g4?? (2. e4 Nc6 (2... d6) 3. d4) $4 2... Qh4# 0-1",
+        "",
+        "[Event \"From FEN\"]",
+        "[FEN \"4k3/P7/8/8/8/8/8/4K3 w - - 0 1\"]",
+        "; a comment line",
+        "1.a8=Q+ Kd7 2.Qb7+ 1/2-1/2",
+        "% an escaped line",
+        "[Event \"Illegal\"]",
+        "1. e4 e5 2. Ke3 Nc6 *",
+        "[Event \"No result\"]",
+        "1. e4 e5 2. Nf3",
+        "[Event \"Castling\"]",
+        "1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O Nf6 5. d3 O-O 1-0",
+        "");
+
+    private static PgnReader reader(String pgn) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testReadsGamesOneAtATime() {
+        PgnReader reader = reader(PGN);
+        assertTrue(reader.hasNext());
+        PgnGame game = reader.next();
+        assertEquals(1, reader.getGamesRead(), "Only the first game is read");
+
+        assertEquals("Casual \"blitz\"", game.getTag("Event"));
+        assertEquals("D\u00fcbel", game.getTag("White"));
+        assertEquals("0-1", game.getResult());
+        assertTrue(game.isValid());
+        assertEquals(4, game.getMoveCount());
+        assertEquals("d8h4", Move.toString(game.getMove(3)));
+
+        Chessboard board = new Chessboard();
+        for (int move : game.getMoves()) assertTrue(board.tryMove(move));
+        assertEquals(GameState.blackWon, board.getGameState());
+    }
+
+    @Test
+    public void testFenTagAndSkippedText() {
+        List<PgnGame> games = reader(PGN).stream().collect(Collectors.toList());
+        assertEquals(5, games.size());
+
+        PgnGame fromFen = games.get(1);
+        assertTrue(fromFen.isValid(), fromFen.toString());
+        assertEquals("1/2-1/2", fromFen.getResult());
+        assertEquals(3, fromFen.getMoveCount());
+        assertEquals("8/1Q1k4/8/8/8/8/8/4K3 b - - 2 2",
+            fromFen.getFinalPosition().toFen());
+    }
+
+    @Test
+    public void testIllegalMoveKeepsEarlierMoves() {
+        List<PgnGame> games = reader(PGN).stream().collect(Collectors.toList());
+        PgnGame illegal = games.get(2);
+        assertFalse(illegal.isValid());
+        assertEquals(2, illegal.getMoveCount());
+        assertTrue(illegal.getError().startsWith("Ply 3"), illegal.getError());
+
+        PgnGame unfinished = games.get(3);
+        assertTrue(unfinished.isValid());
+        assertEquals("*", unfinished.getResult());
+        assertEquals(3, unfinished.getMoveCount());
+
+        PgnGame castling = games.get(4);
+        assertTrue(castling.isValid(), castling.toString());
+        assertEquals("1-0", castling.getResult());
+        assertEquals(5, castling.getNumber());
+        assertTrue(Move.isCastle(castling.getMove(6)));
+        assertTrue(Move.isCastle(castling.getMove(9)));
+    }
+
+    @Test
+    public void testInvalidFenTag() {
+        PgnGame game = reader("[FEN \"not a fen\"]\n1. e4 *\n").next();
+        assertFalse(game.isValid());
+        assertEquals(0, game.getMoveCount());
+    }
+
+    @Test
+    public void testBadEnPassantFenDoesNotEndTheStream() {
+        // No black pawn on e5 for dxe6 to take
+        String pgn = "[FEN \"4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1\"]\n1. dxe6 Kd7 *\n\n"
+            + "[Event \"Next\"]\n1. e4 e5 1-0\n";
+        List<PgnGame> games = reader(pgn).stream().collect(Collectors.toList());
+        assertEquals(2, games.size());
+        assertFalse(games.get(0).isValid());
+        assertEquals(0, games.get(0).getMoveCount());
+
+        PgnGame next = games.get(1);
+        assertTrue(next.isValid(), next.toString());
+        assertEquals("Next", next.getTag("Event"));
+        assertEquals(2, next.getMoveCount());
+    }
+
+    @Test
+    public void testStrayClosingBracketsAreSkipped() {
+        for (String movetext : new String[] {"1. e4 } e5 *", "1. e4 ] e5 *", "1. e4 e5 ) } ] 2. Nf3 1-0"}) {
+            List<PgnGame> games = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> reader(movetext + "\n").stream().collect(Collectors.toList()), movetext);
+            assertEquals(1, games.size(), movetext);
+            assertTrue(games.get(0).isValid(), movetext);
+            assertTrue(games.get(0).getMoveCount() >= 2, movetext);
+        }
+    }
+
+    @Test
+    public void testEscapeLineAndByteOrderMarkAtTheStart() {
+        for (String start : new String[] {"% exported by a tool\n", "\uFEFF", "\uFEFF% exported by a tool\n"}) {
+            List<PgnGame> games = reader(start + "[Event \"A\"]\n\n1. e4 e5 1-0\n").stream().collect(Collectors.toList());
+            assertEquals(1, games.size());
+            assertTrue(games.get(0).isValid(), games.get(0).toString());
+            assertEquals("A", games.get(0).getTag("Event"));
+        }
+
+        // Past the start the same bytes are no longer whitespace
+        PgnGame game = reader("1. e4 \uFEFF e5 *\n").next();
+        assertFalse(game.isValid());
+        assertEquals(1, game.getMoveCount());
+    }
+
+    @Test
+    public void testEmptyInput() {
+        PgnReader reader = reader(" \n\r\n");
+        assertFalse(reader.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    public void testGamesLongerThanTheBuffer() {
+        StringBuilder pgn = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            pgn.append("[Round \"").append(i).append("\"]\n\n");
+            pgn.append("1. Nf3 Nf6 2. Ng1 Ng8 3. Nf3 Nf6 4. Ng1 Ng8 {a long comment to fill the buffer} 1/2-1/2\n\n");
+        }
+        long[] count = {0};
+        reader(pgn.toString()).forEachRemaining(game -> {
+            assertTrue(game.isValid());
+            assertEquals(8, game.getMoveCount());
+            assertEquals(String.valueOf(count[0]++), game.getTag("Round"));
+        });
+        assertEquals(2000, count[0]);
+    }
+}
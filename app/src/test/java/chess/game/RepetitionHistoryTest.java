@@ -0,0 +1,98 @@
+package chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepetitionHistoryTest {
+
+    private static final Position G1 = new Position(7, 6);
+    private static final Position F3 = new Position(5, 5);
+    private static final Position G8 = new Position(0, 6);
+    private static final Position F6 = new Position(2, 5);
+
+    /**
+     * Plays Nf3 Nf6 Ng1 Ng8, which returns to the position it started from.
+     */
+    private void shuffleKnights(Chessboard board) {
+        assertTrue(board.tryMove(G1, F3));
+        assertTrue(board.tryMove(G8, F6));
+        assertTrue(board.tryMove(F3, G1));
+        assertTrue(board.tryMove(F6, G8));
+    }
+
+    @Test
+    public void testThreefoldRepetitionAllowsClaim() {
+        Chessboard board = new Chessboard();
+        this.shuffleKnights(board);
+        assertFalse(board.isThreefoldRepetition());
+        assertFalse(board.claimDraw());
+
+        this.shuffleKnights(board);
+        assertTrue(board.isThreefoldRepetition());
+        assertEquals(GameState.ongoing, board.getGameState(), "Threefold repetition only allows a claim");
+        assertTrue(board.tryMove(G1, F3), "Play may go on after a threefold repetition");
+        assertTrue(board.undoMove());
+
+        assertTrue(board.claimDraw());
+        assertEquals(GameState.draw, board.getGameState());
+        assertFalse(board.tryMove(G1, F3), "No moves after a draw");
+
+        assertTrue(board.undoMove());
+        assertFalse(board.isThreefoldRepetition());
+        assertEquals(GameState.ongoing, board.getGameState());
+    }
+
+    @Test
+    public void testFivefoldRepetitionDrawsGame() {
+        Chessboard board = new Chessboard();
+        for (int i = 0; i < 3; i++) this.shuffleKnights(board);
+        assertFalse(board.isFivefoldRepetition());
+        assertEquals(GameState.ongoing, board.getGameState());
+
+        this.shuffleKnights(board);
+        assertTrue(board.isFivefoldRepetition());
+        assertEquals(GameState.draw, board.getGameState());
+        assertFalse(board.tryMove(G1, F3), "No moves after a draw");
+    }
+
+    @Test
+    public void testIrreversibleMoveEndsScan() {
+        Chessboard board = new Chessboard();
+        this.shuffleKnights(board);
+        assertTrue(board.tryMove(new Position(6, 4), new Position(4, 4)));
+        assertTrue(board.tryMove(new Position(1, 4), new Position(3, 4)));
+        this.shuffleKnights(board);
+        assertFalse(board.isThreefoldRepetition(), "Positions before the pawn moves do not count");
+        this.shuffleKnights(board);
+        assertEquals(8, board.getPosition().getHalfmoveClock());
+        assertTrue(board.isThreefoldRepetition());
+    }
+
+    @Test
+    public void testTwofoldRepetitionForSearch() {
+        RepetitionHistory history = new RepetitionHistory(1L);
+        history.push(2L);
+        history.push(3L);
+        assertFalse(history.isRepetition(2));
+        history.push(4L);
+        history.push(1L);
+        assertTrue(history.isRepetition(4));
+        assertFalse(history.isRepetition(3), "The halfmove clock bounds the scan");
+        assertEquals(2, history.occurrences(4));
+
+        history.pop();
+        assertEquals(1, history.occurrences(3));
+        assertEquals(4, history.size());
+    }
+
+    @Test
+    public void testBufferWrapsAround() {
+        RepetitionHistory history = new RepetitionHistory(0L);
+        for (int i = 1; i < RepetitionHistory.CAPACITY * 3; i++) history.push(i % 8);
+        assertEquals(RepetitionHistory.CAPACITY / 8, history.occurrences(Integer.MAX_VALUE));
+
+        RepetitionHistory single = new RepetitionHistory(0L);
+        assertThrows(IllegalStateException.class, single::pop);
+    }
+}
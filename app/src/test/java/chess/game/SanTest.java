@@ -0,0 +1,168 @@
+package chess.game;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SanTest {
+
+    private static String parse(String fen, String san) {
+        return Move.toString(San.parse(Fen.parse(fen), san));
+    }
+
+    private static String write(String fen, String move) {
+        Bitboard position = Fen.parse(fen);
+        int from = Bitboard.square('8' - move.charAt(1), move.charAt(0) - 'a');
+        int to = Bitboard.square('8' - move.charAt(3), move.charAt(2) - 'a');
+        int promotion = (move.length() > 4) ? "rnbq".indexOf(move.charAt(4)) : Bitboard.EMPTY;
+        return San.toSan(position, Move.of(position, from, to, promotion));
+    }
+
+    @Test
+    public void testPawnAndPieceMoves() {
+        assertEquals("e2e4", parse(Fen.STARTING_POSITION, "e4"));
+        assertEquals("e2e3", parse(Fen.STARTING_POSITION, "e3"));
+        assertEquals("g1f3", parse(Fen.STARTING_POSITION, "Nf3"));
+        assertEquals("g1f3", parse(Fen.STARTING_POSITION, "Ng1-f3"));
+        assertEquals("b8c6", parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", "Nc6!?"));
+    }
+
+    @Test
+    public void testCapturesAndEnPassant() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3";
+        assertEquals("e5f6", parse(fen, "exf6"));
+        int move = San.parse(Fen.parse(fen), "exf6");
+        assertTrue(Move.isEnPassant(move));
+        assertEquals("f1b5", parse(fen, "Bb5+"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(Fen.parse(fen), "exd6"));
+    }
+
+    @Test
+    public void testCastling() {
+        String fen = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+        assertEquals("e1g1", parse(fen, "O-O"));
+        assertEquals("e1c1", parse(fen, "O-O-O"));
+        assertEquals("e1g1", parse(fen, "0-0"));
+        assertTrue(Move.isCastle(San.parse(Fen.parse(fen), "O-O")));
+        assertEquals("e8c8", parse("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", "O-O-O"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1"), "O-O"));
+    }
+
+    @Test
+    public void testDisambiguation() {
+        String fen = "4k3/8/8/8/8/8/4K3/R6R w - - 0 1";
+        assertEquals("a1d1", parse(fen, "Rad1"));
+        assertEquals("h1f1", parse(fen, "Rhf1"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(Fen.parse(fen), "Rd1"), "Ambiguous");
+
+        String ranks = "4k3/8/8/8/R7/8/8/R3K3 w - - 0 1";
+        assertEquals("a4a2", parse(ranks, "R4a2"));
+        assertEquals("a1a2", parse(ranks, "R1a2"));
+
+        // Only one of the knights can move, the other is pinned
+        assertEquals("b1d2", parse("4k3/8/8/8/8/8/8/1N2KN1r w - - 0 1", "Nd2"));
+        assertEquals("f1d2", parse("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", "Nfd2"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(Fen.parse("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1"), "Nd2"));
+    }
+
+    @Test
+    public void testPromotion() {
+        String fen = "1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1";
+        assertEquals("a7a8q", parse(fen, "a8=Q"));
+        assertEquals("a7a8n", parse(fen, "a8N"));
+        assertEquals("a7b8r", parse(fen, "axb8=R+"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(Fen.parse(fen), "a8"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(Fen.parse(Fen.STARTING_POSITION), "e4=Q"));
+    }
+
+    @Test
+    public void testInvalidMovesAreRejected() {
+        Bitboard position = Fen.parse(Fen.STARTING_POSITION);
+        for (String san : new String[] {"", "+", "e", "e5", "Ke2", "Nf4", "i3", "e9", "Nxf3", "Zf3", "O-O", "Ng1/f3"}) {
+            assertThrows(IllegalArgumentException.class, () -> San.parse(position, san), san);
+        }
+    }
+
+    @Test
+    public void testChessboardAcceptsSan() {
+        Chessboard board = new Chessboard();
+        assertTrue(board.tryMove("f3"));
+        assertTrue(board.tryMove("e5"));
+        assertTrue(board.tryMove("g4"));
+        assertFalse(board.tryMove("Qh5"));
+        assertTrue(board.tryMove("Qh4#"));
+        assertEquals(GameState.blackWon, board.getGameState());
+    }
+
+    @Test
+    public void testWritingMoves() {
+        assertEquals("e4", write(Fen.STARTING_POSITION, "e2e4"));
+        assertEquals("Nf3", write(Fen.STARTING_POSITION, "g1f3"));
+
+        String enPassant = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3";
+        assertEquals("exf6", write(enPassant, "e5f6"));
+        assertEquals("Bb5+", write(enPassant, "f1b5"));
+
+        assertEquals("O-O", write("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1g1"));
+        assertEquals("O-O-O", write("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", "e8c8"));
+
+        String promotion = "1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1";
+        assertEquals("a8=Q", write(promotion, "a7a8q"));
+        assertEquals("axb8=R+", write(promotion, "a7b8r"));
+        assertEquals("Qh4#", write("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2", "d8h4"));
+    }
+
+    @Test
+    public void testWritingDisambiguation() {
+        String files = "4k3/8/8/8/8/8/4K3/R6R w - - 0 1";
+        assertEquals("Rad1", write(files, "a1d1"));
+        assertEquals("Rhf1", write(files, "h1f1"));
+        assertEquals("Rb1", write("4k3/8/8/8/8/8/8/R3K2R w - - 0 1", "a1b1"));
+
+        String ranks = "4k3/8/8/8/R7/8/8/R3K3 w - - 0 1";
+        assertEquals("R4a2", write(ranks, "a4a2"));
+        assertEquals("R1a2", write(ranks, "a1a2"));
+
+        String queens = "8/8/1k6/8/4Q2Q/8/8/K6Q w - - 0 1";
+        assertEquals("Qh4e1", write(queens, "h4e1"));
+        assertEquals("Qee1", write(queens, "e4e1"));
+        assertEquals("Q1e1", write(queens, "h1e1"));
+
+        // A pinned knight does not count as a rival
+        assertEquals("Nd2", write("4k3/8/8/8/8/8/8/1N2KN1r w - - 0 1", "b1d2"));
+    }
+
+    @Test
+    public void testWrittenMovesReadBack() {
+        String[] fens = {
+            Fen.STARTING_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        };
+        for (String fen : fens) {
+            Bitboard position = Fen.parse(fen);
+            long key = position.getKey();
+            MoveList moves = new MoveList();
+            new LegalMoveGenerator(position).generate(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                String san = San.toSan(position, move);
+                assertEquals(key, position.getKey(), san);
+                assertEquals(Move.toString(move), Move.toString(San.parse(position, san)), san);
+            }
+        }
+    }
+
+    @Test
+    public void testChessboardMoveHistoryIsSan() {
+        Chessboard board = new Chessboard();
+        for (String san : new String[] {"f3", "e5", "g4", "Qh4"}) assertTrue(board.tryMove(san));
+        assertEquals(List.of("f3", "e5", "g4", "Qh4#"), board.getMoveHistory());
+
+        assertTrue(board.undoMove());
+        assertEquals(List.of("f3", "e5", "g4"), board.getMoveHistory());
+    }
+}
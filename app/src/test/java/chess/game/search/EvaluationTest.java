@@ -0,0 +1,37 @@
+package chess.game.search;
+
+import org.junit.jupiter.api.Test;
+
+import chess.game.Fen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationTest {
+
+    @Test
+    public void testStartingPositionIsEven() {
+        assertEquals(0, Evaluation.evaluate(Fen.parse(Fen.STARTING_POSITION)));
+    }
+
+    @Test
+    public void testScoreIsFromSideToMove() {
+        String white = "4k3/8/8/8/8/8/8/R3K3 w - - 0 1";
+        String black = "4k3/8/8/8/8/8/8/R3K3 b - - 0 1";
+        assertTrue(Evaluation.evaluate(Fen.parse(white)) > 400);
+        assertEquals(-Evaluation.evaluate(Fen.parse(white)), Evaluation.evaluate(Fen.parse(black)));
+    }
+
+    @Test
+    public void testMirroredPositionsScoreTheSame() {
+        String fen = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+        String mirrored = "rnbqkb1r/pppp1ppp/5n2/4p3/4P3/2N5/PPPP1PPP/R1BQKBNR b KQkq - 2 3";
+        assertEquals(Evaluation.evaluate(Fen.parse(fen)), Evaluation.evaluate(Fen.parse(mirrored)));
+    }
+
+    @Test
+    public void testCentralKnightBeatsRimKnight() {
+        int center = Evaluation.evaluate(Fen.parse("4k3/8/8/4N3/8/8/8/4K3 w - - 0 1"));
+        int rim = Evaluation.evaluate(Fen.parse("4k3/8/8/7N/8/8/8/4K3 w - - 0 1"));
+        assertTrue(center > rim);
+    }
+}
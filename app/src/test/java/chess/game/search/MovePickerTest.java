@@ -0,0 +1,90 @@
+package chess.game.search;
+
+import org.junit.jupiter.api.Test;
+
+import chess.game.Bitboard;
+import chess.game.Fen;
+import chess.game.LegalMoveGenerator;
+import chess.game.Move;
+import chess.game.MoveList;
+import chess.game.Perft;
+import chess.game.San;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovePickerTest {
+
+    private static MoveList pick(Bitboard position, int hashMove, int firstKiller, int secondKiller, int[][] history) {
+        MovePicker picker = new MovePicker(new StaticExchange(), history);
+        picker.reset(position, new LegalMoveGenerator(position), hashMove, firstKiller, secondKiller);
+        MoveList moves = new MoveList();
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) moves.add(move);
+        return moves;
+    }
+
+    private static MoveList pick(Bitboard position) {
+        return pick(position, Move.NONE, Move.NONE, Move.NONE, new int[Bitboard.PIECE_CODES][64]);
+    }
+
+    @Test
+    public void testEveryLegalMoveOnce() {
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Bitboard position = Fen.parse(reference.getFen());
+            MoveList legal = new MoveList();
+            new LegalMoveGenerator(position).generate(legal);
+
+            int hashMove = legal.get(legal.size() - 1);
+            MoveList picked = pick(position, hashMove, legal.get(0), legal.get(1), new int[Bitboard.PIECE_CODES][64]);
+            assertEquals(legal.size(), picked.size(), reference.name());
+            assertEquals(hashMove, picked.get(0), reference.name());
+            for (int i = 0; i < legal.size(); i++) assertTrue(picked.contains(legal.get(i)), reference.name());
+        }
+    }
+
+    @Test
+    public void testStagesComeInOrder() {
+        // Qxd5 loses the queen to the c6 pawn, exd5 wins a rook; Nf3 is a killer, Ke2 the history favourite
+        Bitboard position = Fen.parse("4k3/8/2p5/3r4/4P3/8/3Q4/4K1N1 w - - 0 1");
+        int hashMove = San.parse(position, "Kf2");
+        int killer = San.parse(position, "Nf3");
+        int[][] history = new int[Bitboard.PIECE_CODES][64];
+        int kingMove = San.parse(position, "Ke2");
+        history[position.pieceAt(Move.from(kingMove))][Move.to(kingMove)] = 100;
+
+        MoveList picked = pick(position, hashMove, killer, Move.NONE, history);
+        assertEquals(hashMove, picked.get(0));
+        assertEquals(San.parse(position, "exd5"), picked.get(1));
+        assertEquals(killer, picked.get(2));
+        assertEquals(kingMove, picked.get(3));
+        assertEquals(San.parse(position, "Qxd5"), picked.get(picked.size() - 1));
+    }
+
+    @Test
+    public void testCapturesByMostValuableVictim() {
+        // The queen on d5 goes before the rook on f5, and the pawn takes before the knight
+        Bitboard position = Fen.parse("4k3/8/8/3q1r2/4P3/2N5/8/4K3 w - - 0 1");
+        MoveList picked = pick(position);
+        assertEquals(San.parse(position, "exd5"), picked.get(0));
+        assertEquals(San.parse(position, "Nxd5"), picked.get(1));
+        assertEquals(San.parse(position, "exf5"), picked.get(2));
+    }
+
+    @Test
+    public void testMovesFromOtherPositionsAreSkipped() {
+        Bitboard position = Fen.parse(Fen.STARTING_POSITION);
+        Bitboard other = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        int illegal = San.parse(other, "Ra8+");
+        MoveList picked = pick(position, illegal, illegal, Move.NONE, new int[Bitboard.PIECE_CODES][64]);
+        assertEquals(20, picked.size());
+        assertFalse(picked.contains(illegal));
+    }
+
+    @Test
+    public void testCapturesOnlyLeavesOutLosingCaptures() {
+        Bitboard position = Fen.parse("4k3/8/2p5/3r4/4P3/8/3Q4/4K1N1 w - - 0 1");
+        MovePicker picker = new MovePicker(new StaticExchange(), new int[Bitboard.PIECE_CODES][64]);
+        picker.resetCaptures(position, new LegalMoveGenerator(position));
+        assertEquals(San.parse(position, "exd5"), picker.next());
+        assertEquals(Move.NONE, picker.next());
+    }
+}
@@ -0,0 +1,83 @@
+package chess.game.search;
+
+import org.junit.jupiter.api.Test;
+
+import chess.game.Bitboard;
+import chess.game.Chessboard;
+import chess.game.Fen;
+import chess.game.Move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchTest {
+
+    @Test
+    public void testSingleThreadMatchesSearch() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        SearchResult expected = new Search().search(Fen.parse(fen), SearchLimits.depth(4));
+        try (ParallelSearch search = new ParallelSearch(1)) {
+            SearchResult result = search.search(Fen.parse(fen), SearchLimits.depth(4));
+            assertEquals(expected.getBestMove(), result.getBestMove());
+            assertEquals(expected.getScore(), result.getScore());
+            assertEquals(expected.getNodes(), result.getNodes());
+        }
+    }
+
+    @Test
+    public void testHelpersFindTheSameMates() {
+        try (ParallelSearch search = new ParallelSearch(4)) {
+            SearchResult mate = search.search(Fen.parse("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1"), SearchLimits.depth(5));
+            assertTrue(mate.isMate());
+            assertEquals(2, mate.getMateIn());
+
+            SearchResult queen = search.search(Fen.parse("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1"), SearchLimits.depth(4));
+            assertEquals("d1d5", Move.toString(queen.getBestMove()));
+            assertEquals(4, queen.getDepth());
+        }
+    }
+
+    @Test
+    public void testNodesOfAllThreadsAreCounted() {
+        Bitboard position = Fen.parse(Fen.STARTING_POSITION);
+        try (ParallelSearch search = new ParallelSearch(3)) {
+            SearchResult result = search.search(position, SearchLimits.depth(5));
+            assertEquals(5, result.getDepth());
+            assertNotEquals(Move.NONE, result.getBestMove());
+            assertTrue(result.getNodes() > 0);
+        }
+        assertEquals(Fen.parse(Fen.STARTING_POSITION), position);
+    }
+
+    @Test
+    public void testTimeLimitStopsEveryThread() {
+        try (ParallelSearch search = new ParallelSearch(4)) {
+            SearchResult result = search.search(new Chessboard(), SearchLimits.time(100));
+            assertNotEquals(Move.NONE, result.getBestMove());
+            assertTrue(result.getNanos() < 1_000_000_000L, "time " + result.getNanos());
+        }
+    }
+
+    @Test
+    public void testStopFromAnotherThread() throws InterruptedException {
+        try (ParallelSearch search = new ParallelSearch(2)) {
+            Thread stopper = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                search.stop();
+            });
+            stopper.start();
+            SearchResult result = search.search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.depth(Search.MAX_DEPTH));
+            stopper.join();
+            assertNotEquals(Move.NONE, result.getBestMove());
+            assertTrue(result.getDepth() < Search.MAX_DEPTH);
+        }
+    }
+
+    @Test
+    public void testThreadCountIsValidated() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0));
+    }
+}
@@ -0,0 +1,130 @@
+package chess.game.search;
+
+import org.junit.jupiter.api.Test;
+
+import chess.game.Bitboard;
+import chess.game.Chessboard;
+import chess.game.Fen;
+import chess.game.LegalMoveGenerator;
+import chess.game.Move;
+import chess.game.MoveList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTest {
+
+    private static SearchResult search(String fen, int depth) {
+        return new Search().search(Fen.parse(fen), SearchLimits.depth(depth));
+    }
+
+    @Test
+    public void testFindsMateInOne() {
+        SearchResult result = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4);
+        assertEquals("a1a8", Move.toString(result.getBestMove()));
+        assertEquals(Search.MATE - 1, result.getScore());
+        assertEquals(1, result.getMateIn());
+    }
+
+    @Test
+    public void testFindsMateInTwo() {
+        String fen = "7k/8/8/8/8/8/R7/1R4K1 w - - 0 1";
+        SearchResult result = search(fen, 5);
+        assertTrue(result.isMate());
+        assertEquals(2, result.getMateIn());
+
+        // The principal variation ends in mate
+        Bitboard position = Fen.parse(fen);
+        for (int move : result.getPv()) position.makeMove(move);
+        assertTrue(position.isInCheck());
+        assertFalse(new LegalMoveGenerator(position).hasLegalMove());
+    }
+
+    @Test
+    public void testWinsHangingQueen() {
+        SearchResult result = search("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1", 3);
+        assertEquals("d1d5", Move.toString(result.getBestMove()));
+        assertTrue(result.getScore() > 300);
+    }
+
+    @Test
+    public void testNoMoveWhenStalemated() {
+        SearchResult result = search("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", 3);
+        assertEquals(Move.NONE, result.getBestMove());
+        assertEquals(0, result.getScore());
+        assertEquals(0, result.getPv().length);
+    }
+
+    @Test
+    public void testPrincipalVariationIsLegal() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        SearchResult result = search(fen, 4);
+        assertEquals(4, result.getDepth());
+        assertTrue(result.getPv().length >= 1);
+
+        Bitboard position = Fen.parse(fen);
+        MoveList moves = new MoveList();
+        for (int move : result.getPv()) {
+            moves.clear();
+            new LegalMoveGenerator(position).generate(moves);
+            assertTrue(moves.contains(move), Move.toString(move));
+            position.makeMove(move);
+        }
+    }
+
+    @Test
+    public void testSearchLeavesPositionUnchanged() {
+        Bitboard position = Fen.parse(Fen.STARTING_POSITION);
+        Bitboard copy = new Bitboard(position);
+        new Search().search(position, SearchLimits.depth(3));
+        assertEquals(copy, position);
+    }
+
+    @Test
+    public void testNodeAndTimeLimits() {
+        SearchResult byNodes = new Search().search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.nodes(5_000));
+        assertTrue(byNodes.getNodes() < 5_000 + 1_024, "nodes " + byNodes.getNodes());
+        assertNotEquals(Move.NONE, byNodes.getBestMove());
+
+        SearchResult byTime = new Search().search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.time(100));
+        assertTrue(byTime.getNanos() < 1_000_000_000L, "time " + byTime.getNanos());
+        assertTrue(byTime.getDepth() >= 2, "depth " + byTime.getDepth());
+    }
+
+    @Test
+    public void testFiftyMoveRuleScoresDraw() {
+        // A rook up, but every move reaches the hundredth ply without a capture or pawn move
+        assertTrue(search("7k/8/8/8/8/8/8/R5K1 w - - 0 1", 2).getScore() > 300);
+        assertEquals(0, search("7k/8/8/8/8/8/8/R5K1 w - - 99 80", 2).getScore());
+    }
+
+    @Test
+    public void testRepetitionOfGamePositionScoresDraw() {
+        Chessboard board = new Chessboard("7k/8/8/8/8/8/8/R5K1 b - - 0 1");
+        SearchResult alone = new Search().search(board.getPosition(), SearchLimits.depth(2));
+        assertTrue(alone.getScore() < -300);
+
+        // Back where the game started, Kh7 repeats the position after the first move
+        for (String san : new String[] {"Kh7", "Kh2", "Kh8", "Kg1"}) assertTrue(board.tryMove(san));
+        SearchResult inGame = new Search().search(board, SearchLimits.depth(2));
+        assertEquals(0, inGame.getScore());
+        assertEquals("h8h7", Move.toString(inGame.getBestMove()));
+    }
+
+    @Test
+    public void testReportsFirstMoveCutoffRate() {
+        SearchResult result = search("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 5);
+        assertTrue(result.getCutoffs() > 0);
+        assertTrue(result.getFirstMoveCutoffs() <= result.getCutoffs());
+        // Hash move, captures, killers and history between them should get most cutoffs at once
+        assertTrue(result.getFirstMoveCutoffRate() > 0.8, "rate " + result.getFirstMoveCutoffRate());
+        assertTrue(result.toString().contains("first cutoff"));
+    }
+
+    @Test
+    public void testLimitsAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(0, 0L, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(Search.MAX_DEPTH + 1, 0L, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(1, -1L, 0L));
+        assertThrows(IllegalArgumentException.class, () -> SearchLimits.time(-5));
+    }
+}
@@ -0,0 +1,71 @@
+package chess.game.search;
+
+import org.junit.jupiter.api.Test;
+
+import chess.game.Bitboard;
+import chess.game.Fen;
+import chess.game.Move;
+import chess.game.San;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticExchangeTest {
+
+    private static int see(String fen, String san) {
+        Bitboard position = Fen.parse(fen);
+        Bitboard copy = new Bitboard(position);
+        int score = new StaticExchange().evaluate(position, San.parse(position, san));
+        assertEquals(copy, position, "SEE must not modify the position");
+        return score;
+    }
+
+    @Test
+    public void testUndefendedPieces() {
+        assertEquals(100, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "Rxe5"));
+        assertEquals(900, see("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1", "Rxd5"));
+    }
+
+    @Test
+    public void testDefendedPieces() {
+        assertEquals(0, see("4k3/8/2p5/3p4/4P3/8/8/4K3 w - - 0 1", "exd5"));
+        assertEquals(-800, see("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1", "Qxd5"));
+        assertEquals(400, see("4k3/8/2p5/3r4/4P3/8/8/4K3 w - - 0 1", "exd5"));
+    }
+
+    @Test
+    public void testSlidersJoinFromBehind() {
+        // Nxe5 Nxe5 Rxe5 Bxe5 Qxe5 Qxe5: the queens x-ray through the rook and the bishop
+        assertEquals(100 - 320, see("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "Nxe5"));
+        // Rxd5 Rxd5 Rxd5 wins a pawn only with the second rook behind the first
+        assertEquals(100, see("3r2k1/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "Rxd5"));
+        assertEquals(100 - 500, see("3r2k1/8/8/3p4/8/8/3R4/4K3 w - - 0 1", "Rxd5"));
+    }
+
+    @Test
+    public void testKingOnlyTakesUndefendedPieces() {
+        // The black king cannot take back on d2, the white king guards it
+        assertEquals(100, see("8/8/8/8/8/4k3/3p4/3QK3 w - - 0 1", "Qxd2"));
+        assertEquals(100 - 900, see("8/8/8/8/8/4k3/3p4/3Q2K1 w - - 0 1", "Qxd2"));
+    }
+
+    @Test
+    public void testEnPassantAndPromotion() {
+        assertEquals(100, see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "exd6"));
+        assertEquals(800, see("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a8=Q"));
+        assertEquals(-100, see("8/Pk6/8/8/8/8/8/4K3 w - - 0 1", "a8=Q+"));
+    }
+
+    @Test
+    public void testQuietMoves() {
+        assertEquals(0, see(Fen.STARTING_POSITION, "Nf3"));
+        assertEquals(-320, see("4k3/8/8/8/3p4/8/8/1N2K3 w - - 0 1", "Nc3"));
+    }
+
+    @Test
+    public void testQuiescenceSeesTheRecapture() {
+        // Taking the defended pawn with the queen looks good at depth 1 without the recapture
+        SearchResult result = new Search().search(Fen.parse("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1"), SearchLimits.depth(1));
+        assertNotEquals("d2d5", Move.toString(result.getBestMove()));
+        assertTrue(result.getScore() > 500);
+    }
+}
@@ -0,0 +1,126 @@
+package chess.game.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import chess.game.Bitboard;
+import chess.game.Fen;
+import chess.game.Move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    private static final int MOVE = Move.encode(52, 36, Bitboard.EMPTY, 0);
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = Fen.parse(Fen.STARTING_POSITION).getKey();
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key));
+
+        table.store(key, MOVE, -Search.MATE + 3, 12, TranspositionTable.UPPER);
+        long entry = table.probe(key);
+        assertEquals(MOVE, TranspositionTable.move(entry));
+        assertEquals(-Search.MATE + 3, TranspositionTable.score(entry));
+        assertEquals(12, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key ^ 1));
+
+        assertEquals(1, table.getHits());
+        assertEquals(2, table.getMisses());
+        assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void testStoreWithoutMoveKeepsOldMove() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, MOVE, 10, 3, TranspositionTable.LOWER);
+        table.store(42L, Move.NONE, -20, 5, TranspositionTable.UPPER);
+
+        long entry = table.probe(42L);
+        assertEquals(MOVE, TranspositionTable.move(entry));
+        assertEquals(-20, TranspositionTable.score(entry));
+        assertEquals(5, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    public void testReplacementKeepsDeepAndCurrentEntries() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = ((long) table.getSizeMegabytes() << 20) / 64;
+
+        // Keys that differ only above the bucket index all land in the same bucket
+        long[] keys = new long[5];
+        for (int i = 0; i < keys.length; i++) keys[i] = (i + 1) * buckets;
+        for (int i = 0; i < 4; i++) table.store(keys[i], MOVE, i, 10 + i, TranspositionTable.EXACT);
+
+        // The shallowest entry gives way
+        table.store(keys[4], MOVE, 4, 1, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(keys[0]));
+        for (int i = 1; i < keys.length; i++) assertNotEquals(TranspositionTable.NO_ENTRY, table.probe(keys[i]));
+
+        // A few searches later, deep old entries give way before a shallow current one
+        for (int i = 0; i < 3; i++) table.newSearch();
+        table.store(keys[4], MOVE, 4, 1, TranspositionTable.EXACT);
+        table.store(keys[0], MOVE, 0, 0, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(keys[1]));
+        assertNotEquals(TranspositionTable.NO_ENTRY, table.probe(keys[0]));
+        assertNotEquals(TranspositionTable.NO_ENTRY, table.probe(keys[4]));
+    }
+
+    @Test
+    public void testClear() {
+        TranspositionTable table = new TranspositionTable(2);
+        assertEquals(2, table.getSizeMegabytes());
+        table.store(7L, MOVE, 0, 1, TranspositionTable.EXACT);
+        assertTrue(table.probe(7L) != TranspositionTable.NO_ENTRY);
+
+        table.clear();
+        assertEquals(0, table.getHits());
+        assertEquals(0, table.getMisses());
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(7L));
+        assertEquals(0, table.getUsage());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    public void testConcurrentWritersNeverProduceTornEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = ((long) table.getSizeMegabytes() << 20) / 64;
+        AtomicLong torn = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                for (long i = 0; i < 200_000; i++) {
+                    // Many keys in one bucket, so threads keep overwriting each other's entries
+                    long n = (i * 31 + seed) % 64 + 1;
+                    long key = n * buckets;
+                    table.store(key, MOVE, (int) n, (int) n, TranspositionTable.EXACT);
+                    long entry = table.probe(key);
+                    if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.score(entry) != n) torn.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(0, torn.get());
+    }
+
+    @Test
+    public void testSearchUsesTable() {
+        TranspositionTable table = new TranspositionTable(1);
+        Search search = new Search(table);
+        search.search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.depth(4));
+        assertTrue(table.getHits() > 0);
+        assertTrue(table.getUsage() > 0);
+
+        // A second search of the same position starts from what the first one stored
+        long first = new Search().search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.depth(4)).getNodes();
+        long second = search.search(Fen.parse(Fen.STARTING_POSITION), SearchLimits.depth(4)).getNodes();
+        assertTrue(second < first, second + " < " + first);
+    }
+}